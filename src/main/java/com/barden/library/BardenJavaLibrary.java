@@ -1,6 +1,7 @@
 package com.barden.library;
 
 import com.barden.library.database.DatabaseProvider;
+import com.barden.library.database.mongo.structure.DatabaseMongoProvider;
 import com.barden.library.scheduler.SchedulerProvider;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -8,6 +9,11 @@ import org.springframework.lang.NonNull;
 
 import javax.annotation.Nonnull;
 import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Barden java library class.
@@ -27,13 +33,48 @@ public final class BardenJavaLibrary {
 
     /**
      * Terminates barden java library.
+     * Waits up to 10 seconds.
      */
     public static void terminate() {
+        terminate(10, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Terminates barden java library.
+     * Write behind structures are flushed first, then scheduler is drained so pending
+     * async saves reach the databases, then database providers are flushed and closed in parallel.
+     *
+     * @param timeout Overall timeout.
+     * @param unit    Time unit.
+     * @return Termination report.
+     */
+    @Nonnull
+    public static TerminationReport terminate(long timeout, @Nonnull TimeUnit unit) {
+        //Declares deadline.
+        long start = System.nanoTime();
+        long deadline = start + Objects.requireNonNull(unit, "time unit cannot be null!").toNanos(timeout);
+
+        //Flushes write behind structures while scheduler and database providers are still alive.
+        Map<String, Integer> unflushed = DatabaseMongoProvider.stopAllWriteBehind();
+
+        //Terminates scheduler.
+        List<Runnable> dropped = new ArrayList<>();
         try {
-            BardenJavaLibrary.scheduler.shutdown();
+            dropped.addAll(BardenJavaLibrary.scheduler.terminate(deadline - System.nanoTime(), TimeUnit.NANOSECONDS));
         } catch (Exception exception) {
-            SchedulerProvider.getLogger().error("Couldn't shutdown scheduler!", exception);
+            SchedulerProvider.getLogger().error("Couldn't terminate scheduler!", exception);
         }
+
+        //Terminates database providers.
+        Map<String, TerminationReport.Outcome> providers = DatabaseProvider.terminate(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+
+        //Creates report.
+        TerminationReport report = new TerminationReport(dropped, unflushed, providers, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        if (report.isClean())
+            logger.info("Terminated barden java library. " + report);
+        else
+            logger.warn("Terminated barden java library with losses. " + report);
+        return report;
     }
 
     /**
@@ -0,0 +1,111 @@
+package com.barden.library;
+
+import javax.annotation.Nonnull;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Termination report class.
+ */
+public final class TerminationReport {
+
+    /**
+     * Provider close outcomes.
+     */
+    public enum Outcome {
+        CLOSED,
+        FAILED,
+        TIMED_OUT
+    }
+
+    private final List<Runnable> dropped;
+    private final Map<String, Integer> unflushed;
+    private final Map<String, Outcome> providers;
+    private final long duration;
+
+    /**
+     * Creates termination report object.
+     *
+     * @param dropped   Runnables which were dropped from the scheduler.
+     * @param providers Close outcomes of database providers.
+     * @param duration  Termination duration in milliseconds.
+     */
+    public TerminationReport(@Nonnull List<Runnable> dropped, @Nonnull Map<String, Outcome> providers, long duration) {
+        this(dropped, Map.of(), providers, duration);
+    }
+
+    /**
+     * Creates termination report object.
+     *
+     * @param dropped   Runnables which were dropped from the scheduler.
+     * @param unflushed Dirty structure counts of write behind providers whose last flush failed.
+     * @param providers Close outcomes of database providers.
+     * @param duration  Termination duration in milliseconds.
+     */
+    public TerminationReport(@Nonnull List<Runnable> dropped, @Nonnull Map<String, Integer> unflushed, @Nonnull Map<String, Outcome> providers, long duration) {
+        this.dropped = Collections.unmodifiableList(Objects.requireNonNull(dropped, "dropped cannot be null!"));
+        this.unflushed = Collections.unmodifiableMap(Objects.requireNonNull(unflushed, "unflushed cannot be null!"));
+        this.providers = Collections.unmodifiableMap(Objects.requireNonNull(providers, "providers cannot be null!"));
+        this.duration = duration;
+    }
+
+    /**
+     * Gets dropped runnables.
+     * They were queued or delayed in the scheduler and never ran.
+     *
+     * @return Dropped runnables.
+     */
+    @Nonnull
+    public List<Runnable> getDropped() {
+        return this.dropped;
+    }
+
+    /**
+     * Gets unflushed write behind structures.
+     * Their last flush failed, so their changes never reached the database.
+     *
+     * @return Write behind provider name and dirty structure count map.
+     */
+    @Nonnull
+    public Map<String, Integer> getUnflushed() {
+        return this.unflushed;
+    }
+
+    /**
+     * Gets close outcomes of database providers.
+     *
+     * @return Provider name and close outcome map.
+     */
+    @Nonnull
+    public Map<String, Outcome> getProviders() {
+        return this.providers;
+    }
+
+    /**
+     * Gets duration.
+     *
+     * @return Termination duration in milliseconds.
+     */
+    public long getDuration() {
+        return this.duration;
+    }
+
+    /**
+     * Gets if termination is clean or not.
+     *
+     * @return If nothing is dropped or unflushed and every provider is closed.
+     */
+    public boolean isClean() {
+        return this.dropped.isEmpty() && this.unflushed.isEmpty() && this.providers.values().stream().allMatch(outcome -> outcome == Outcome.CLOSED);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String toString() {
+        return "TerminationReport{dropped=" + this.dropped.size() + ", unflushed=" + this.unflushed + ", providers=" + this.providers + ", duration=" + this.duration + "ms}";
+    }
+}
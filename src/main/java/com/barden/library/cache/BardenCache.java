@@ -0,0 +1,850 @@
+package com.barden.library.cache;
+
+import com.barden.library.scheduler.SchedulerProvider;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.lang.ref.WeakReference;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Barden cache class.
+ * A concurrent, optionally size or weight bounded cache with W-TinyLFU eviction.
+ * <p>
+ * New entries enter a small LRU window. Entries leaving the window compete with the
+ * least recently used entry of the main space, and the one which is more popular
+ * according to a frequency sketch stays. Main space is split into probation and
+ * protected segments, entries accessed in probation are promoted to protected.
+ * <p>
+ * Reads are lock-free, they are recorded into a lossy buffer. Writes are recorded into
+ * a write buffer. Both buffers are replayed against the eviction policy under a lock
+ * by whichever thread gets it, which also evicts and expires entries. There are no timers,
+ * expired entries are never returned and are removed on later operations or on {@link #cleanUp()}.
+ *
+ * @param <K> Key type.
+ * @param <V> Value type.
+ */
+public final class BardenCache<K, V> {
+
+    /*
+    STATICS
+     */
+
+    private static final int READ_BUFFER_SIZE = 128;
+    private static final int READ_BUFFER_MASK = READ_BUFFER_SIZE - 1;
+    private static final int READ_BUFFER_THRESHOLD = READ_BUFFER_SIZE / 4;
+
+    /**
+     * Creates new cache builder.
+     *
+     * @param <K> Key type.
+     * @param <V> Value type.
+     * @return Barden cache builder.
+     */
+    @Nonnull
+    public static <K, V> BardenCacheBuilder<K, V> builder() {
+        return new BardenCacheBuilder<>();
+    }
+
+
+    /*
+    ROOT
+     */
+
+    private final ConcurrentHashMap<K, CacheNode<K, V>> data = new ConcurrentHashMap<>();
+    private final boolean bounded;
+    private final long maximum;
+    private final Weigher<K, V> weigher;
+    private final long expireAfterWrite;
+    private final long expireAfterAccess;
+    private final RemovalListener<K, V> removalListener;
+    private final CacheStats stats = new CacheStats();
+
+    //[BUFFERS]
+    private final AtomicReferenceArray<CacheNode<K, V>> readBuffer = new AtomicReferenceArray<>(READ_BUFFER_SIZE);
+    private final AtomicLong readBufferWrites = new AtomicLong();
+    private volatile long readBufferReads;
+    private final Queue<Runnable> writeBuffer = new ConcurrentLinkedQueue<>();
+
+    //[POLICY]
+    private final ReentrantLock evictionLock = new ReentrantLock();
+    private final FrequencySketch sketch = new FrequencySketch();
+    private final CacheDeque<K, V> windowDeque = new CacheDeque<>(false);
+    private final CacheDeque<K, V> probationDeque = new CacheDeque<>(false);
+    private final CacheDeque<K, V> protectedDeque = new CacheDeque<>(false);
+    private final CacheDeque<K, V> writeDeque = new CacheDeque<>(true);
+    private final long windowMaximum;
+    private final long protectedMaximum;
+    private long windowWeight;
+    private long protectedWeight;
+    private volatile long weight;
+
+    private final String name;
+    private final Supplier<CacheStatsSnapshot> metrics;
+
+    /**
+     * Creates barden cache object.
+     *
+     * @param builder Barden cache builder.
+     */
+    BardenCache(@Nonnull BardenCacheBuilder<K, V> builder) {
+        //Objects null check.
+        Objects.requireNonNull(builder, "builder cannot be null!");
+
+        this.bounded = builder.getMaximum() >= 0;
+        this.maximum = this.bounded ? builder.getMaximum() : Long.MAX_VALUE;
+        this.weigher = builder.getWeigher();
+        this.expireAfterWrite = builder.getExpireAfterWrite();
+        this.expireAfterAccess = builder.getExpireAfterAccess();
+        this.removalListener = builder.getRemovalListener();
+
+        //Window takes 1% of the cache, protected segment takes 80% of the rest.
+        this.windowMaximum = this.bounded ? Math.max(this.maximum / 100, Math.min(this.maximum, 1)) : Long.MAX_VALUE;
+        this.protectedMaximum = this.bounded ? (this.maximum - this.windowMaximum) / 5 * 4 : Long.MAX_VALUE;
+        if (this.bounded)
+            this.sketch.ensureCapacity(Math.min(this.maximum, 1 << 16));
+
+        //Exposes stats of named caches. Metrics hold the cache weakly, so they don't keep it alive.
+        this.name = builder.getName();
+        if (this.name != null) {
+            WeakReference<BardenCache<K, V>> reference = new WeakReference<>(this);
+            this.metrics = () -> {
+                BardenCache<K, V> cache = reference.get();
+                return cache == null ? null : cache.getStats();
+            };
+            CacheMetrics.getInstance().add(this.name, this.metrics);
+        } else {
+            this.metrics = null;
+        }
+    }
+
+    /**
+     * Gets maximum size or weight.
+     *
+     * @return Maximum size or weight. (Long.MAX_VALUE if cache is unbounded)
+     */
+    public long getMaximum() {
+        return this.maximum;
+    }
+
+    /**
+     * Gets total weight of entries.
+     * Without a weigher, it is the number of entries known by the eviction policy.
+     *
+     * @return Total weight.
+     */
+    public long getWeight() {
+        return this.weight;
+    }
+
+    /**
+     * Gets estimated size.
+     * It may include expired entries which are not cleaned up yet.
+     *
+     * @return Estimated number of entries.
+     */
+    public long size() {
+        return this.data.mappingCount();
+    }
+
+    /**
+     * Gets stats.
+     *
+     * @return Cache stats snapshot.
+     */
+    @Nonnull
+    public CacheStatsSnapshot getStats() {
+        return this.stats.snapshot(this.size(), this.weight);
+    }
+
+    /**
+     * Gets value of the key if it is present.
+     *
+     * @param key Key.
+     * @return Value. (Optional)
+     */
+    @Nullable
+    public V getIfPresent(@Nonnull K key) {
+        CacheNode<K, V> node = this.getNode(key);
+        return node == null ? null : node.value;
+    }
+
+    /**
+     * Finds value of the key.
+     *
+     * @param key Key.
+     * @return Optional value.
+     */
+    @Nonnull
+    public Optional<V> find(@Nonnull K key) {
+        return Optional.ofNullable(this.getIfPresent(key));
+    }
+
+    /**
+     * Gets value of the key, computes and caches it if it is absent.
+     * Concurrent calls for the same key wait for a single computation.
+     *
+     * @param key      Key.
+     * @param function Mapping function. (Returning null caches nothing)
+     * @return Value. (Optional)
+     */
+    @Nullable
+    public V get(@Nonnull K key, @Nonnull Function<? super K, ? extends V> function) {
+        //Objects null check.
+        Objects.requireNonNull(key, "key cannot be null!");
+        Objects.requireNonNull(function, "function cannot be null!");
+
+        //Fast path, entry is present.
+        long now = System.nanoTime();
+        CacheNode<K, V> node = this.data.get(key);
+        if (node != null && !this.isExpired(node, now)) {
+            this.stats.recordHit();
+            this.afterRead(node, now);
+            return node.value;
+        }
+
+        //Computes entry. (Replaces expired entry.)
+        this.stats.recordMiss();
+        @SuppressWarnings("unchecked")
+        CacheNode<K, V>[] changes = this.nodes(2);
+        node = this.data.compute(key, (_key, _node) -> {
+            if (_node != null && !this.isExpired(_node, now))
+                return _node;
+            if (_node != null) {
+                _node.retired = true;
+                changes[0] = _node;
+            }
+
+            V value;
+            long start = System.nanoTime();
+            try {
+                value = function.apply(_key);
+            } catch (RuntimeException exception) {
+                this.stats.recordLoad(System.nanoTime() - start, true);
+                throw exception;
+            }
+            this.stats.recordLoad(System.nanoTime() - start, false);
+            if (value == null)
+                return null;
+            return changes[1] = new CacheNode<>(_key, value, this.weigh(_key, value), System.nanoTime());
+        });
+
+        //Handles changes.
+        if (changes[0] != null)
+            this.afterRemove(changes[0], RemovalCause.EXPIRED);
+        if (changes[1] != null)
+            this.afterWrite(() -> this.onAdd(changes[1]));
+        else if (node != null)
+            this.afterRead(node, now);
+        return node == null ? null : node.value;
+    }
+
+    /**
+     * Puts value of the key.
+     *
+     * @param key   Key.
+     * @param value Value.
+     */
+    public void put(@Nonnull K key, @Nonnull V value) {
+        //Objects null check.
+        Objects.requireNonNull(key, "key cannot be null!");
+        Objects.requireNonNull(value, "value cannot be null!");
+
+        //Updates present entry in place, or adds a new one.
+        int weight = this.weigh(key, value);
+        long now = System.nanoTime();
+        @SuppressWarnings("unchecked")
+        CacheNode<K, V>[] changes = this.nodes(2);
+        Object[] replaced = new Object[1];
+        CacheNode<K, V> node = this.data.compute(key, (_key, _node) -> {
+            if (_node != null && !this.isExpired(_node, now)) {
+                replaced[0] = _node.value;
+                _node.value = value;
+                _node.weight = weight;
+                _node.writeTime = now;
+                _node.accessTime = now;
+                return _node;
+            }
+            if (_node != null) {
+                _node.retired = true;
+                changes[0] = _node;
+            }
+            return changes[1] = new CacheNode<>(_key, value, weight, now);
+        });
+
+        //Handles changes.
+        if (changes[0] != null)
+            this.afterRemove(changes[0], RemovalCause.EXPIRED);
+        if (changes[1] != null) {
+            this.afterWrite(() -> this.onAdd(node));
+        } else {
+            this.afterWrite(() -> this.onUpdate(node));
+            @SuppressWarnings("unchecked")
+            V previous = (V) replaced[0];
+            if (previous != value)
+                this.notifyRemoval(key, previous, RemovalCause.REPLACED);
+        }
+    }
+
+    /**
+     * Invalidates entry of the key.
+     *
+     * @param key Key.
+     */
+    public void invalidate(@Nonnull K key) {
+        Objects.requireNonNull(key, "key cannot be null!");
+
+        //Removes entry.
+        @SuppressWarnings("unchecked")
+        CacheNode<K, V>[] removed = this.nodes(1);
+        this.data.computeIfPresent(key, (_key, _node) -> {
+            _node.retired = true;
+            removed[0] = _node;
+            return null;
+        });
+
+        //Handles removal.
+        if (removed[0] != null)
+            this.afterRemove(removed[0], this.isExpired(removed[0], System.nanoTime()) ? RemovalCause.EXPIRED : RemovalCause.EXPLICIT);
+    }
+
+    /**
+     * Invalidates all entries.
+     */
+    public void invalidateAll() {
+        for (K key : this.data.keySet())
+            this.invalidate(key);
+    }
+
+    /**
+     * Closes cache.
+     * Invalidates all entries and removes its stats from cache metrics.
+     */
+    public void close() {
+        if (this.metrics != null)
+            CacheMetrics.getInstance().remove(this.name, this.metrics);
+        this.invalidateAll();
+    }
+
+    /**
+     * Performs pending maintenance.
+     * Replays buffered reads and writes, expires and evicts entries.
+     */
+    public void cleanUp() {
+        this.evictionLock.lock();
+        try {
+            this.maintenance();
+        } finally {
+            this.evictionLock.unlock();
+        }
+    }
+
+    /**
+     * Performs action for each live entry.
+     * Reads are not recorded, so it doesn't affect eviction.
+     *
+     * @param action Action.
+     */
+    public void forEach(@Nonnull BiConsumer<? super K, ? super V> action) {
+        Objects.requireNonNull(action, "action cannot be null!");
+
+        long now = System.nanoTime();
+        for (CacheNode<K, V> node : this.data.values())
+            if (!this.isExpired(node, now))
+                action.accept(node.key, node.value);
+    }
+
+    /*
+    READ AND WRITE
+     */
+
+    /**
+     * Gets live node of the key and records the read.
+     *
+     * @param key Key.
+     * @return Node. (Optional)
+     */
+    @Nullable
+    CacheNode<K, V> getNode(@Nonnull K key) {
+        CacheNode<K, V> node = this.data.get(Objects.requireNonNull(key, "key cannot be null!"));
+        if (node == null) {
+            this.stats.recordMiss();
+            return null;
+        }
+
+        //If entry is expired, no need to continue.
+        long now = System.nanoTime();
+        if (this.isExpired(node, now)) {
+            this.stats.recordMiss();
+            this.tryMaintenance();
+            return null;
+        }
+
+        //Records read.
+        this.stats.recordHit();
+        this.afterRead(node, now);
+        return node;
+    }
+
+    /**
+     * Gets stats counter.
+     *
+     * @return Cache stats.
+     */
+    @Nonnull
+    CacheStats getStatsCounter() {
+        return this.stats;
+    }
+
+    /**
+     * Gets hottest live nodes, most frequently accessed ones first.
+     *
+     * @param limit Maximum node count.
+     * @return Hottest nodes.
+     */
+    @Nonnull
+    List<CacheNode<K, V>> hottest(int limit) {
+        long now = System.nanoTime();
+        List<CacheNode<K, V>> nodes = new ArrayList<>();
+        for (CacheNode<K, V> node : this.data.values())
+            if (!this.isExpired(node, now))
+                nodes.add(node);
+
+        //Sorts by frequency, then by recency.
+        Map<CacheNode<K, V>, Integer> frequencies = new HashMap<>();
+        this.evictionLock.lock();
+        try {
+            for (CacheNode<K, V> node : nodes)
+                frequencies.put(node, this.bounded ? this.sketch.frequency(node.key) : 0);
+        } finally {
+            this.evictionLock.unlock();
+        }
+        nodes.sort(Comparator.<CacheNode<K, V>>comparingInt(frequencies::get).thenComparingLong(node -> node.accessTime).reversed());
+        return nodes.size() > limit ? nodes.subList(0, limit) : nodes;
+    }
+
+    /**
+     * Gets access frequency of the key.
+     *
+     * @param key Key.
+     * @return Estimated frequency. (Up to 15)
+     */
+    int frequency(@Nonnull K key) {
+        if (!this.bounded)
+            return 0;
+
+        this.evictionLock.lock();
+        try {
+            return this.sketch.frequency(key);
+        } finally {
+            this.evictionLock.unlock();
+        }
+    }
+
+    /**
+     * Records accesses of the key without reading it, so it competes with its known popularity once cached.
+     *
+     * @param key       Key.
+     * @param frequency Access count.
+     */
+    void warm(@Nonnull K key, int frequency) {
+        if (!this.bounded)
+            return;
+
+        this.evictionLock.lock();
+        try {
+            this.sketch.ensureCapacity(this.data.mappingCount());
+            for (int i = 0; i < Math.min(frequency, 15); i++)
+                this.sketch.increment(key);
+        } finally {
+            this.evictionLock.unlock();
+        }
+    }
+
+    /**
+     * Creates node array, used to take nodes out of compute functions.
+     *
+     * @param length Array length.
+     * @return Node array.
+     */
+    @Nonnull
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private CacheNode<K, V>[] nodes(int length) {
+        return new CacheNode[length];
+    }
+
+    /**
+     * Weighs an entry.
+     *
+     * @param key   Key.
+     * @param value Value.
+     * @return Weight.
+     */
+    private int weigh(@Nonnull K key, @Nonnull V value) {
+        int weight = this.weigher.weigh(key, value);
+        if (weight < 0)
+            throw new IllegalArgumentException("weight cannot be negative!");
+        return weight;
+    }
+
+    /**
+     * Gets if node is expired or not.
+     *
+     * @param node Node.
+     * @param now  Current time in nanoseconds.
+     * @return If node is expired or not.
+     */
+    private boolean isExpired(@Nonnull CacheNode<K, V> node, long now) {
+        return (this.expireAfterWrite > 0 && now - node.writeTime >= this.expireAfterWrite)
+                || (this.expireAfterAccess > 0 && now - node.accessTime >= this.expireAfterAccess);
+    }
+
+    /**
+     * Records a read into the read buffer.
+     * If buffer is full, read is dropped, policy only needs a sample.
+     *
+     * @param node Node.
+     * @param now  Current time in nanoseconds.
+     */
+    private void afterRead(@Nonnull CacheNode<K, V> node, long now) {
+        if (this.expireAfterAccess > 0)
+            node.accessTime = now;
+
+        //If cache is unbounded and access order doesn't matter, no need to continue.
+        if (!this.bounded && this.expireAfterAccess == 0)
+            return;
+
+        long writes = this.readBufferWrites.get();
+        long pending = writes - this.readBufferReads;
+        if (pending < READ_BUFFER_SIZE && this.readBufferWrites.compareAndSet(writes, writes + 1)) {
+            this.readBuffer.lazySet((int) (writes & READ_BUFFER_MASK), node);
+            pending++;
+        }
+
+        //Drains buffers once enough reads are pending.
+        if (pending >= READ_BUFFER_THRESHOLD)
+            this.tryMaintenance();
+    }
+
+    /**
+     * Records a write into the write buffer.
+     *
+     * @param task Policy task.
+     */
+    private void afterWrite(@Nonnull Runnable task) {
+        this.writeBuffer.offer(task);
+        this.tryMaintenance();
+    }
+
+    /**
+     * Handles a removed node.
+     *
+     * @param node  Node.
+     * @param cause Removal cause.
+     */
+    private void afterRemove(@Nonnull CacheNode<K, V> node, @Nonnull RemovalCause cause) {
+        this.afterWrite(() -> this.unlink(node));
+        this.notifyRemoval(node.key, node.value, cause);
+    }
+
+    /**
+     * Notifies removal listener.
+     *
+     * @param key   Key.
+     * @param value Value.
+     * @param cause Removal cause.
+     */
+    private void notifyRemoval(@Nonnull K key, @Nonnull V value, @Nonnull RemovalCause cause) {
+        if (this.removalListener != null)
+            SchedulerProvider.run(() -> this.removalListener.onRemoval(key, value, cause));
+    }
+
+    /**
+     * Performs maintenance if eviction lock is free.
+     */
+    private void tryMaintenance() {
+        do {
+            if (!this.evictionLock.tryLock())
+                return;
+            try {
+                this.maintenance();
+            } finally {
+                this.evictionLock.unlock();
+            }
+        } while (!this.writeBuffer.isEmpty());
+    }
+
+    /*
+    POLICY
+     */
+
+    /**
+     * Performs maintenance.
+     * (Eviction lock must be held.)
+     */
+    private void maintenance() {
+        //Replays buffered reads.
+        long reads = this.readBufferReads;
+        long writes = this.readBufferWrites.get();
+        for (; reads < writes; reads++) {
+            int index = (int) (reads & READ_BUFFER_MASK);
+            CacheNode<K, V> node = this.readBuffer.get(index);
+            if (node == null)
+                break;
+            this.readBuffer.lazySet(index, null);
+            this.onAccess(node);
+        }
+        this.readBufferReads = reads;
+
+        //Replays buffered writes.
+        Runnable task;
+        while ((task = this.writeBuffer.poll()) != null)
+            task.run();
+
+        //Expires and evicts entries.
+        this.expire(System.nanoTime());
+        this.evict();
+    }
+
+    /**
+     * Handles added node.
+     *
+     * @param node Node.
+     */
+    private void onAdd(@Nonnull CacheNode<K, V> node) {
+        //If node is already removed, no need to continue.
+        if (node.retired || node.queue != CacheNode.NONE)
+            return;
+
+        node.policyWeight = node.weight;
+        node.queue = CacheNode.WINDOW;
+        this.windowDeque.addLast(node);
+        this.windowWeight += node.policyWeight;
+        this.weight += node.policyWeight;
+        if (this.expireAfterWrite > 0)
+            this.writeDeque.addLast(node);
+        if (this.bounded) {
+            this.sketch.ensureCapacity(this.data.mappingCount());
+            this.sketch.increment(node.key);
+        }
+    }
+
+    /**
+     * Handles updated node.
+     *
+     * @param node Node.
+     */
+    private void onUpdate(@Nonnull CacheNode<K, V> node) {
+        //If node is not added yet or already removed, no need to continue.
+        if (node.queue == CacheNode.NONE)
+            return;
+
+        //Applies weight change.
+        int difference = node.weight - node.policyWeight;
+        node.policyWeight += difference;
+        this.weight += difference;
+        if (node.queue == CacheNode.WINDOW)
+            this.windowWeight += difference;
+        else if (node.queue == CacheNode.PROTECTED)
+            this.protectedWeight += difference;
+
+        //Moves node as if it is accessed.
+        if (this.expireAfterWrite > 0)
+            this.writeDeque.moveToLast(node);
+        this.onAccess(node);
+    }
+
+    /**
+     * Handles accessed node.
+     *
+     * @param node Node.
+     */
+    private void onAccess(@Nonnull CacheNode<K, V> node) {
+        //If node is not added yet or already removed, no need to continue.
+        if (node.queue == CacheNode.NONE)
+            return;
+
+        if (this.bounded)
+            this.sketch.increment(node.key);
+
+        switch (node.queue) {
+            case CacheNode.WINDOW -> this.windowDeque.moveToLast(node);
+            case CacheNode.PROTECTED -> this.protectedDeque.moveToLast(node);
+            case CacheNode.PROBATION -> {
+                //Promotes node to protected segment.
+                this.probationDeque.remove(node);
+                this.protectedDeque.addLast(node);
+                node.queue = CacheNode.PROTECTED;
+                this.protectedWeight += node.policyWeight;
+
+                //Demotes least recently used protected nodes if segment is full.
+                while (this.protectedWeight > this.protectedMaximum) {
+                    CacheNode<K, V> demoted = this.protectedDeque.peekFirst();
+                    if (demoted == null || demoted == node)
+                        break;
+                    this.protectedDeque.remove(demoted);
+                    this.probationDeque.addLast(demoted);
+                    demoted.queue = CacheNode.PROBATION;
+                    this.protectedWeight -= demoted.policyWeight;
+                }
+            }
+        }
+    }
+
+    /**
+     * Unlinks node from the policy.
+     *
+     * @param node Node.
+     */
+    private void unlink(@Nonnull CacheNode<K, V> node) {
+        switch (node.queue) {
+            case CacheNode.NONE -> {
+                return;
+            }
+            case CacheNode.WINDOW -> {
+                this.windowDeque.remove(node);
+                this.windowWeight -= node.policyWeight;
+            }
+            case CacheNode.PROBATION -> this.probationDeque.remove(node);
+            case CacheNode.PROTECTED -> {
+                this.protectedDeque.remove(node);
+                this.protectedWeight -= node.policyWeight;
+            }
+        }
+        if (this.expireAfterWrite > 0)
+            this.writeDeque.remove(node);
+        this.weight -= node.policyWeight;
+        node.queue = CacheNode.NONE;
+    }
+
+    /**
+     * Evicts node.
+     *
+     * @param node  Node.
+     * @param cause Removal cause.
+     * @param now   Current time in nanoseconds.
+     * @return If node is evicted or not. (Expired node may be refreshed meanwhile.)
+     */
+    private boolean evict(@Nonnull CacheNode<K, V> node, @Nonnull RemovalCause cause, long now) {
+        boolean[] removed = new boolean[1];
+        this.data.computeIfPresent(node.key, (_key, _node) -> {
+            if (_node != node || (cause == RemovalCause.EXPIRED && !this.isExpired(_node, now)))
+                return _node;
+            _node.retired = true;
+            removed[0] = true;
+            return null;
+        });
+
+        //If node is still alive, no need to continue.
+        if (!removed[0] && !node.retired)
+            return false;
+
+        this.unlink(node);
+        if (removed[0]) {
+            this.stats.recordEviction(node.weight);
+            this.notifyRemoval(node.key, node.value, cause);
+        }
+        return true;
+    }
+
+    /**
+     * Expires entries.
+     *
+     * @param now Current time in nanoseconds.
+     */
+    private void expire(long now) {
+        if (this.expireAfterAccess > 0) {
+            this.expire(this.windowDeque, now);
+            this.expire(this.probationDeque, now);
+            this.expire(this.protectedDeque, now);
+        }
+        if (this.expireAfterWrite > 0)
+            this.expire(this.writeDeque, now);
+    }
+
+    /**
+     * Expires entries from the head of the deque.
+     * Deques are roughly ordered by time, so it stops at the first live entry.
+     *
+     * @param deque Deque.
+     * @param now   Current time in nanoseconds.
+     */
+    private void expire(@Nonnull CacheDeque<K, V> deque, long now) {
+        CacheNode<K, V> node;
+        while ((node = deque.peekFirst()) != null && this.isExpired(node, now)) {
+            if (!this.evict(node, RemovalCause.EXPIRED, now)) {
+                deque.moveToLast(node);
+                return;
+            }
+        }
+    }
+
+    /**
+     * Evicts entries until cache fits in its maximum.
+     */
+    private void evict() {
+        //If cache is unbounded, no need to continue.
+        if (!this.bounded)
+            return;
+
+        long now = System.nanoTime();
+
+        //Moves overflowing window entries to the main space, each competes with its victim if main space is full.
+        while (this.windowWeight > this.windowMaximum) {
+            CacheNode<K, V> candidate = this.windowDeque.peekFirst();
+            if (candidate == null)
+                break;
+            this.windowDeque.remove(candidate);
+            this.windowWeight -= candidate.policyWeight;
+            candidate.queue = CacheNode.PROBATION;
+            this.probationDeque.addLast(candidate);
+            if (this.weight <= this.maximum)
+                continue;
+
+            CacheNode<K, V> victim = this.probationDeque.peekFirst();
+            if (victim == candidate)
+                victim = this.protectedDeque.peekFirst();
+            this.evict(victim == null || !this.admit(candidate, victim) ? candidate : victim, RemovalCause.SIZE, now);
+        }
+
+        //Evicts least recently used entries until cache fits. (Entries heavier than the window etc.)
+        while (this.weight > this.maximum) {
+            CacheNode<K, V> victim = this.probationDeque.peekFirst();
+            if (victim == null)
+                victim = this.protectedDeque.peekFirst();
+            if (victim == null)
+                victim = this.windowDeque.peekFirst();
+            if (victim == null)
+                break;
+            this.evict(victim, RemovalCause.SIZE, now);
+        }
+    }
+
+    /**
+     * Gets if candidate should be admitted instead of the victim.
+     *
+     * @param candidate Candidate node.
+     * @param victim    Victim node.
+     * @return If candidate should be admitted or not.
+     */
+    private boolean admit(@Nonnull CacheNode<K, V> candidate, @Nonnull CacheNode<K, V> victim) {
+        int candidateFrequency = this.sketch.frequency(candidate.key);
+        int victimFrequency = this.sketch.frequency(victim.key);
+        if (candidateFrequency > victimFrequency)
+            return true;
+        if (candidateFrequency <= 5)
+            return false;
+
+        //Admits warm candidates randomly, so an attacker can't keep a victim in the cache with hash collisions.
+        return (ThreadLocalRandom.current().nextInt() & 127) == 0;
+    }
+}
@@ -0,0 +1,217 @@
+package com.barden.library.cache;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Barden cache builder class.
+ *
+ * @param <K> Key type.
+ * @param <V> Value type.
+ */
+public final class BardenCacheBuilder<K, V> {
+
+    private String name;
+    private long maximum = -1;
+    private Weigher<K, V> weigher;
+    private long expireAfterWrite;
+    private long expireAfterAccess;
+    private long refreshAfterWrite;
+    private RemovalListener<K, V> removalListener;
+
+    /**
+     * Gets name.
+     *
+     * @return Cache name. (Optional)
+     */
+    @Nullable
+    public String getName() {
+        return this.name;
+    }
+
+    /**
+     * Gets maximum size or weight.
+     *
+     * @return Maximum size or weight. (-1 if cache is unbounded)
+     */
+    public long getMaximum() {
+        return this.maximum;
+    }
+
+    /**
+     * Gets weigher.
+     *
+     * @return Weigher.
+     */
+    @Nonnull
+    public Weigher<K, V> getWeigher() {
+        return this.weigher == null ? Weigher.singleton() : this.weigher;
+    }
+
+    /**
+     * Gets expire after write.
+     *
+     * @return Expire after write in nanoseconds. (0 if entries don't expire after write)
+     */
+    public long getExpireAfterWrite() {
+        return this.expireAfterWrite;
+    }
+
+    /**
+     * Gets expire after access.
+     *
+     * @return Expire after access in nanoseconds. (0 if entries don't expire after access)
+     */
+    public long getExpireAfterAccess() {
+        return this.expireAfterAccess;
+    }
+
+    /**
+     * Gets refresh after write.
+     *
+     * @return Refresh after write in nanoseconds. (0 if entries are not refreshed)
+     */
+    public long getRefreshAfterWrite() {
+        return this.refreshAfterWrite;
+    }
+
+    /**
+     * Gets removal listener.
+     *
+     * @return Removal listener. (Optional)
+     */
+    @Nullable
+    public RemovalListener<K, V> getRemovalListener() {
+        return this.removalListener;
+    }
+
+    /**
+     * Sets name.
+     * Stats of named caches are exposed through {@link CacheMetrics}.
+     *
+     * @param name Cache name.
+     * @return Barden cache builder.
+     */
+    @Nonnull
+    public BardenCacheBuilder<K, V> name(@Nonnull String name) {
+        this.name = Objects.requireNonNull(name, "name cannot be null!");
+        return this;
+    }
+
+    /**
+     * Sets maximum size.
+     *
+     * @param size Maximum number of entries.
+     * @return Barden cache builder.
+     */
+    @Nonnull
+    public BardenCacheBuilder<K, V> maximumSize(long size) {
+        if (size < 0)
+            throw new IllegalArgumentException("maximum size cannot be negative!");
+        if (this.weigher != null)
+            throw new IllegalStateException("maximum size cannot be used with weigher!");
+        this.maximum = size;
+        return this;
+    }
+
+    /**
+     * Sets maximum weight.
+     *
+     * @param weight  Maximum total weight of entries.
+     * @param weigher Weigher.
+     * @return Barden cache builder.
+     */
+    @Nonnull
+    public BardenCacheBuilder<K, V> maximumWeight(long weight, @Nonnull Weigher<K, V> weigher) {
+        if (weight < 0)
+            throw new IllegalArgumentException("maximum weight cannot be negative!");
+        this.maximum = weight;
+        this.weigher = Objects.requireNonNull(weigher, "weigher cannot be null!");
+        return this;
+    }
+
+    /**
+     * Sets expire after write.
+     * Entries expire once given time passes after they are created or replaced.
+     *
+     * @param time Time.
+     * @param unit Time unit.
+     * @return Barden cache builder.
+     */
+    @Nonnull
+    public BardenCacheBuilder<K, V> expireAfterWrite(long time, @Nonnull TimeUnit unit) {
+        this.expireAfterWrite = Objects.requireNonNull(unit, "time unit cannot be null!").toNanos(time);
+        if (this.expireAfterWrite <= 0)
+            throw new IllegalArgumentException("expire after write must be positive!");
+        return this;
+    }
+
+    /**
+     * Sets expire after access.
+     * Entries expire once given time passes after they are last read or written.
+     *
+     * @param time Time.
+     * @param unit Time unit.
+     * @return Barden cache builder.
+     */
+    @Nonnull
+    public BardenCacheBuilder<K, V> expireAfterAccess(long time, @Nonnull TimeUnit unit) {
+        this.expireAfterAccess = Objects.requireNonNull(unit, "time unit cannot be null!").toNanos(time);
+        if (this.expireAfterAccess <= 0)
+            throw new IllegalArgumentException("expire after access must be positive!");
+        return this;
+    }
+
+    /**
+     * Sets refresh after write.
+     * Once given time passes after an entry is written, next read returns current value
+     * and reloads it in the background. Keep it shorter than expiry, so hot entries
+     * never expire. (Only used by loading caches.)
+     *
+     * @param time Time.
+     * @param unit Time unit.
+     * @return Barden cache builder.
+     */
+    @Nonnull
+    public BardenCacheBuilder<K, V> refreshAfterWrite(long time, @Nonnull TimeUnit unit) {
+        this.refreshAfterWrite = Objects.requireNonNull(unit, "time unit cannot be null!").toNanos(time);
+        if (this.refreshAfterWrite <= 0)
+            throw new IllegalArgumentException("refresh after write must be positive!");
+        return this;
+    }
+
+    /**
+     * Sets removal listener.
+     *
+     * @param removalListener Removal listener.
+     * @return Barden cache builder.
+     */
+    @Nonnull
+    public BardenCacheBuilder<K, V> removalListener(@Nonnull RemovalListener<K, V> removalListener) {
+        this.removalListener = Objects.requireNonNull(removalListener, "removal listener cannot be null!");
+        return this;
+    }
+
+    /**
+     * Builds cache.
+     *
+     * @return Barden cache.
+     */
+    @Nonnull
+    public BardenCache<K, V> build() {
+        return new BardenCache<>(this);
+    }
+
+    /**
+     * Builds loading cache.
+     *
+     * @param loader Cache loader.
+     * @return Barden loading cache.
+     */
+    @Nonnull
+    public BardenLoadingCache<K, V> build(@Nonnull CacheLoader<K, V> loader) {
+        return new BardenLoadingCache<>(this, loader);
+    }
+}
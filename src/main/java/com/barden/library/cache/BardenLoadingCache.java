@@ -0,0 +1,316 @@
+package com.barden.library.cache;
+
+import com.barden.library.BardenJavaLibrary;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Barden loading cache class.
+ * Loads missing values with a cache loader. Concurrent misses of the same key
+ * share a single in-flight load, so a popular key never hits the database twice
+ * at once. With refresh after write, old entries are reloaded in the background
+ * while readers keep getting the current value.
+ *
+ * @param <K> Key type.
+ * @param <V> Value type.
+ */
+public final class BardenLoadingCache<K, V> {
+
+    private final BardenCache<K, V> cache;
+    private final CacheLoader<K, V> loader;
+    private final long refreshAfterWrite;
+    private final Map<K, CompletableFuture<V>> loads = new ConcurrentHashMap<>();
+
+    /**
+     * Creates barden loading cache object.
+     *
+     * @param builder Barden cache builder.
+     * @param loader  Cache loader.
+     */
+    BardenLoadingCache(@Nonnull BardenCacheBuilder<K, V> builder, @Nonnull CacheLoader<K, V> loader) {
+        this.cache = Objects.requireNonNull(builder, "builder cannot be null!").build();
+        this.loader = Objects.requireNonNull(loader, "loader cannot be null!");
+        this.refreshAfterWrite = builder.getRefreshAfterWrite();
+    }
+
+    /**
+     * Gets cache.
+     *
+     * @return Barden cache which holds loaded values.
+     */
+    @Nonnull
+    public BardenCache<K, V> getCache() {
+        return this.cache;
+    }
+
+    /**
+     * Gets stats.
+     *
+     * @return Cache stats snapshot.
+     */
+    @Nonnull
+    public CacheStatsSnapshot getStats() {
+        return this.cache.getStats();
+    }
+
+    /**
+     * Gets in-flight load count.
+     *
+     * @return In-flight load count.
+     */
+    public int getLoads() {
+        return this.loads.size();
+    }
+
+    /**
+     * Gets value of the key if it is present, doesn't load it.
+     *
+     * @param key Key.
+     * @return Value. (Optional)
+     */
+    @Nullable
+    public V getIfPresent(@Nonnull K key) {
+        CacheNode<K, V> node = this.cache.getNode(key);
+        if (node == null)
+            return null;
+        this.refreshIfNeeded(node);
+        return node.value;
+    }
+
+    /**
+     * Gets value of the key, loads it if it is absent.
+     * Load runs on the calling thread, concurrent callers of the same key wait for it.
+     *
+     * @param key Key.
+     * @return Value. (Optional)
+     * @throws IllegalStateException If value couldn't be loaded.
+     */
+    @Nullable
+    public V get(@Nonnull K key) {
+        //If value is present, no need to continue.
+        CacheNode<K, V> node = this.cache.getNode(key);
+        if (node != null) {
+            this.refreshIfNeeded(node);
+            return node.value;
+        }
+
+        //Joins in-flight load, or starts one.
+        CompletableFuture<V> future = new CompletableFuture<>();
+        CompletableFuture<V> present = this.loads.putIfAbsent(key, future);
+        if (present == null)
+            this.load(key, future);
+        return this.join(key, present == null ? future : present);
+    }
+
+    /**
+     * Gets value of the key, loads it on the worker pool if it is absent.
+     *
+     * @param key Key.
+     * @return Completable future of the value.
+     */
+    @Nonnull
+    public CompletableFuture<V> getAsync(@Nonnull K key) {
+        //If value is present, no need to continue.
+        CacheNode<K, V> node = this.cache.getNode(key);
+        if (node != null) {
+            this.refreshIfNeeded(node);
+            return CompletableFuture.completedFuture(node.value);
+        }
+
+        return this.loadAsync(key);
+    }
+
+    /**
+     * Gets values of the keys, loads absent ones with a single bulk load.
+     *
+     * @param keys Keys.
+     * @return Key and value map. (Keys without a value are left out)
+     * @throws IllegalStateException If values couldn't be loaded.
+     */
+    @Nonnull
+    public Map<K, V> getAll(@Nonnull Collection<? extends K> keys) {
+        Objects.requireNonNull(keys, "keys cannot be null!");
+
+        Map<K, V> values = new LinkedHashMap<>();
+        Map<K, CompletableFuture<V>> waiting = new LinkedHashMap<>();
+        Map<K, CompletableFuture<V>> claimed = new LinkedHashMap<>();
+
+        //Splits keys into present, already loading and to be loaded ones.
+        for (K key : keys) {
+            CacheNode<K, V> node = this.cache.getNode(key);
+            if (node != null) {
+                this.refreshIfNeeded(node);
+                values.put(key, node.value);
+                continue;
+            }
+
+            CompletableFuture<V> future = new CompletableFuture<>();
+            CompletableFuture<V> present = this.loads.putIfAbsent(key, future);
+            if (present == null)
+                claimed.put(key, future);
+            waiting.put(key, present == null ? future : present);
+        }
+
+        //Loads claimed keys at once.
+        if (!claimed.isEmpty()) {
+            long start = System.nanoTime();
+            try {
+                Map<K, V> loaded = this.loader.loadAll(claimed.keySet());
+                this.cache.getStatsCounter().recordLoad(System.nanoTime() - start, false);
+                claimed.forEach((key, future) -> this.complete(key, future, loaded.get(key)));
+            } catch (Exception exception) {
+                this.cache.getStatsCounter().recordLoad(System.nanoTime() - start, true);
+                claimed.forEach((key, future) -> this.fail(key, future, exception));
+            }
+        }
+
+        //Collects loaded values.
+        waiting.forEach((key, future) -> {
+            V value = this.join(key, future);
+            if (value != null)
+                values.put(key, value);
+        });
+        return values;
+    }
+
+    /**
+     * Puts value of the key.
+     * In-flight load of the key is discarded.
+     *
+     * @param key   Key.
+     * @param value Value.
+     */
+    public void put(@Nonnull K key, @Nonnull V value) {
+        this.loads.remove(Objects.requireNonNull(key, "key cannot be null!"));
+        this.cache.put(key, value);
+    }
+
+    /**
+     * Invalidates entry of the key.
+     * In-flight load of the key is discarded.
+     *
+     * @param key Key.
+     */
+    public void invalidate(@Nonnull K key) {
+        this.loads.remove(Objects.requireNonNull(key, "key cannot be null!"));
+        this.cache.invalidate(key);
+    }
+
+    /**
+     * Reloads value of the key in the background.
+     * Current value is served until reload completes.
+     *
+     * @param key Key.
+     * @return Completable future of the reloaded value.
+     */
+    @Nonnull
+    public CompletableFuture<V> refresh(@Nonnull K key) {
+        return this.loadAsync(key);
+    }
+
+    /**
+     * Refreshes entry if it is old enough.
+     *
+     * @param node Node.
+     */
+    private void refreshIfNeeded(@Nonnull CacheNode<K, V> node) {
+        if (this.refreshAfterWrite > 0 && System.nanoTime() - node.writeTime >= this.refreshAfterWrite && !this.loads.containsKey(node.key))
+            this.loadAsync(node.key);
+    }
+
+    /**
+     * Loads value of the key on the worker pool, joins in-flight load if there is any.
+     *
+     * @param key Key.
+     * @return Completable future of the value.
+     */
+    @Nonnull
+    private CompletableFuture<V> loadAsync(@Nonnull K key) {
+        Objects.requireNonNull(key, "key cannot be null!");
+
+        CompletableFuture<V> future = new CompletableFuture<>();
+        CompletableFuture<V> present = this.loads.putIfAbsent(key, future);
+        if (present != null)
+            return present;
+
+        BardenJavaLibrary.getScheduler().getService().execute(() -> this.load(key, future));
+        return future;
+    }
+
+    /**
+     * Loads value of the key and completes its future.
+     *
+     * @param key    Key.
+     * @param future Future of the load.
+     */
+    private void load(@Nonnull K key, @Nonnull CompletableFuture<V> future) {
+        long start = System.nanoTime();
+        V value;
+        try {
+            value = this.loader.load(key);
+        } catch (Exception exception) {
+            this.cache.getStatsCounter().recordLoad(System.nanoTime() - start, true);
+            this.fail(key, future, exception);
+            return;
+        }
+        this.cache.getStatsCounter().recordLoad(System.nanoTime() - start, false);
+        this.complete(key, future, value);
+    }
+
+    /**
+     * Completes load.
+     * Value is cached only if the load is not discarded meanwhile, so an invalidation never gets overwritten.
+     *
+     * @param key    Key.
+     * @param future Future of the load.
+     * @param value  Loaded value. (Optional)
+     */
+    private void complete(@Nonnull K key, @Nonnull CompletableFuture<V> future, @Nullable V value) {
+        this.loads.computeIfPresent(key, (_key, _future) -> {
+            if (_future != future)
+                return _future;
+            if (value == null)
+                this.cache.invalidate(_key);
+            else
+                this.cache.put(_key, value);
+            return null;
+        });
+        future.complete(value);
+    }
+
+    /**
+     * Fails load.
+     * Present value stays in the cache.
+     *
+     * @param key       Key.
+     * @param future    Future of the load.
+     * @param exception Exception.
+     */
+    private void fail(@Nonnull K key, @Nonnull CompletableFuture<V> future, @Nonnull Exception exception) {
+        this.loads.remove(key, future);
+        BardenJavaLibrary.getLogger().error("Couldn't load cache key(" + key + ")!", exception);
+        future.completeExceptionally(exception);
+    }
+
+    /**
+     * Waits for a load.
+     *
+     * @param key    Key.
+     * @param future Future of the load.
+     * @return Loaded value. (Optional)
+     * @throws IllegalStateException If value couldn't be loaded.
+     */
+    @Nullable
+    private V join(@Nonnull K key, @Nonnull CompletableFuture<V> future) {
+        try {
+            return future.join();
+        } catch (CompletionException exception) {
+            throw new IllegalStateException("Couldn't load cache key(" + key + ")!", exception.getCause());
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package com.barden.library.cache;
+
+import com.google.gson.Gson;
+
+import javax.annotation.Nonnull;
+import java.nio.charset.StandardCharsets;
+import java.util.Objects;
+
+/**
+ * Cache codec interface.
+ * Serializes values of caches which keep them outside of the heap or outside of the process.
+ *
+ * @param <V> Value type.
+ */
+public interface CacheCodec<V> {
+
+    /**
+     * Gets UTF-8 string codec.
+     *
+     * @return String codec.
+     */
+    @Nonnull
+    static CacheCodec<String> string() {
+        return new CacheCodec<>() {
+            @Nonnull
+            @Override
+            public byte[] encode(@Nonnull String value) {
+                return value.getBytes(StandardCharsets.UTF_8);
+            }
+
+            @Nonnull
+            @Override
+            public String decode(@Nonnull byte[] bytes) {
+                return new String(bytes, StandardCharsets.UTF_8);
+            }
+        };
+    }
+
+    /**
+     * Gets gson codec which stores values as UTF-8 json.
+     *
+     * @param type Value class.
+     * @param <V>  Value type.
+     * @return Gson codec.
+     */
+    @Nonnull
+    static <V> CacheCodec<V> gson(@Nonnull Class<V> type) {
+        Objects.requireNonNull(type, "type cannot be null!");
+        Gson gson = new Gson();
+        return new CacheCodec<>() {
+            @Nonnull
+            @Override
+            public byte[] encode(@Nonnull V value) {
+                return gson.toJson(value).getBytes(StandardCharsets.UTF_8);
+            }
+
+            @Nonnull
+            @Override
+            public V decode(@Nonnull byte[] bytes) {
+                return gson.fromJson(new String(bytes, StandardCharsets.UTF_8), type);
+            }
+        };
+    }
+
+    /**
+     * Encodes value.
+     *
+     * @param value Value.
+     * @return Encoded bytes.
+     */
+    @Nonnull
+    byte[] encode(@Nonnull V value);
+
+    /**
+     * Decodes value.
+     *
+     * @param bytes Encoded bytes.
+     * @return Value.
+     */
+    @Nonnull
+    V decode(@Nonnull byte[] bytes);
+}
@@ -0,0 +1,101 @@
+package com.barden.library.cache;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+/**
+ * Cache deque class.
+ * An intrusive doubly linked list of cache nodes, either in access order or in write order.
+ * (Not thread safe, it is guarded by the cache eviction lock.)
+ *
+ * @param <K> Key type.
+ * @param <V> Value type.
+ */
+final class CacheDeque<K, V> {
+
+    private final boolean write;
+    private CacheNode<K, V> first;
+    private CacheNode<K, V> last;
+
+    /**
+     * Creates cache deque object.
+     *
+     * @param write If deque links nodes in write order or not.
+     */
+    CacheDeque(boolean write) {
+        this.write = write;
+    }
+
+    /**
+     * Gets first node.
+     *
+     * @return First node. (Optional)
+     */
+    @Nullable
+    CacheNode<K, V> peekFirst() {
+        return this.first;
+    }
+
+    /**
+     * Adds node to the end.
+     *
+     * @param node Node.
+     */
+    void addLast(@Nonnull CacheNode<K, V> node) {
+        this.setPrevious(node, this.last);
+        this.setNext(node, null);
+        if (this.last == null)
+            this.first = node;
+        else
+            this.setNext(this.last, node);
+        this.last = node;
+    }
+
+    /**
+     * Removes node.
+     *
+     * @param node Node.
+     */
+    void remove(@Nonnull CacheNode<K, V> node) {
+        CacheNode<K, V> previous = this.write ? node.previousWrite : node.previous;
+        CacheNode<K, V> next = this.write ? node.nextWrite : node.next;
+
+        if (previous == null)
+            this.first = next;
+        else
+            this.setNext(previous, next);
+        if (next == null)
+            this.last = previous;
+        else
+            this.setPrevious(next, previous);
+
+        this.setPrevious(node, null);
+        this.setNext(node, null);
+    }
+
+    /**
+     * Moves node to the end.
+     *
+     * @param node Node.
+     */
+    void moveToLast(@Nonnull CacheNode<K, V> node) {
+        if (node == this.last)
+            return;
+        this.remove(node);
+        this.addLast(node);
+    }
+
+    private void setPrevious(@Nonnull CacheNode<K, V> node, @Nullable CacheNode<K, V> previous) {
+        if (this.write)
+            node.previousWrite = previous;
+        else
+            node.previous = previous;
+    }
+
+    private void setNext(@Nonnull CacheNode<K, V> node, @Nullable CacheNode<K, V> next) {
+        if (this.write)
+            node.nextWrite = next;
+        else
+            node.next = next;
+    }
+}
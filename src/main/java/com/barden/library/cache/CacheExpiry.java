@@ -0,0 +1,132 @@
+package com.barden.library.cache;
+
+import com.barden.library.BardenJavaLibrary;
+import com.barden.library.database.mongo.structure.DatabaseObject;
+import com.barden.library.scheduler.SchedulerProvider;
+import com.barden.library.scheduler.task.Task;
+import com.barden.library.scheduler.timer.ExpiryWheel;
+
+import javax.annotation.Nonnull;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Cache expiry class.
+ * Tracks last access of a cached entity on the shared expiry wheel,
+ * so resetting it is a single volatile write. Dirty fields of database
+ * entities are flushed before they expire.
+ */
+final class CacheExpiry implements ExpiryWheel.Entry {
+
+    private static final VarHandle SCHEDULED;
+
+    static {
+        try {
+            SCHEDULED = MethodHandles.lookup().findVarHandle(CacheExpiry.class, "scheduled", boolean.class);
+        } catch (ReflectiveOperationException exception) {
+            throw new ExceptionInInitializerError(exception);
+        }
+    }
+
+    private final Object entity;
+    private final long timeout;
+    private final Consumer<Task> action;
+    private volatile long lastAccess;
+    private volatile boolean scheduled;
+    private volatile boolean done;
+
+    /**
+     * Creates cache expiry object.
+     *
+     * @param entity Cached entity.
+     * @param time   Time.
+     * @param unit   Time unit.
+     * @param action Task consumer.
+     */
+    CacheExpiry(@Nonnull Object entity, long time, @Nonnull TimeUnit unit, @Nonnull Consumer<Task> action) {
+        this.entity = Objects.requireNonNull(entity, "entity cannot be null!");
+        this.timeout = Objects.requireNonNull(unit, "time unit cannot be null!").toNanos(time);
+        this.action = Objects.requireNonNull(action, "action cannot be null!");
+        this.reset();
+    }
+
+    /**
+     * Resets expiry.
+     */
+    void reset() {
+        this.lastAccess = System.nanoTime();
+        if (this.done)
+            this.done = false;
+        this.schedule();
+    }
+
+    /**
+     * Puts expiry on the wheel if it is not on it.
+     * Only one of concurrent callers wins.
+     */
+    private void schedule() {
+        if (!this.scheduled && SCHEDULED.compareAndSet(this, false, true))
+            BardenJavaLibrary.getScheduler().getExpiryWheel().schedule(this);
+    }
+
+    /**
+     * Gets if expired or not.
+     *
+     * @return If expired or not.
+     */
+    boolean isDone() {
+        return this.done;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public long getDeadline() {
+        return this.lastAccess + this.timeout;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void expire() {
+        this.scheduled = false;
+
+        //Runs action as a one-shot task.
+        SchedulerProvider.schedule(task -> {
+            //Task runs a while after the wheel checked the deadline, entity might be accessed meanwhile.
+            if (this.getDeadline() - System.nanoTime() > 0) {
+                this.schedule();
+                return;
+            }
+
+            //Marks entity as done, then checks deadline again. A reset after the mark clears it and puts it back.
+            this.done = true;
+            if (this.getDeadline() - System.nanoTime() > 0) {
+                this.done = false;
+                this.schedule();
+                return;
+            }
+
+            //Flushes write behind fields before entity is dropped.
+            if (this.entity instanceof DatabaseObject<?, ?> object) {
+                try {
+                    object.getDatabase().flush();
+                } catch (Exception exception) {
+                    BardenJavaLibrary.getLogger().error("Couldn't flush expired entity(" + this.entity + ")!", exception);
+                }
+            }
+
+            //If entity is accessed while flushing, it is not expired.
+            if (!this.done)
+                return;
+
+            //Accepts action with current task.
+            this.action.accept(task);
+        });
+    }
+}
@@ -0,0 +1,46 @@
+package com.barden.library.cache;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Cache loader interface.
+ *
+ * @param <K> Key type.
+ * @param <V> Value type.
+ */
+@FunctionalInterface
+public interface CacheLoader<K, V> {
+
+    /**
+     * Loads value of the key.
+     *
+     * @param key Key.
+     * @return Value. (Optional, null means there is no value)
+     * @throws Exception If value couldn't be loaded.
+     */
+    @Nullable
+    V load(@Nonnull K key) throws Exception;
+
+    /**
+     * Loads values of the keys.
+     * Override it to fetch many keys with a single query, by default it loads keys one by one.
+     *
+     * @param keys Keys.
+     * @return Key and value map. (Keys without a value are left out)
+     * @throws Exception If values couldn't be loaded.
+     */
+    @Nonnull
+    default Map<K, V> loadAll(@Nonnull Collection<? extends K> keys) throws Exception {
+        Map<K, V> values = new HashMap<>();
+        for (K key : keys) {
+            V value = this.load(key);
+            if (value != null)
+                values.put(key, value);
+        }
+        return values;
+    }
+}
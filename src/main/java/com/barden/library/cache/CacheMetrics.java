@@ -0,0 +1,153 @@
+package com.barden.library.cache;
+
+import com.barden.library.BardenJavaLibrary;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Cache metrics class.
+ * Holds stats of named caches and exposes them through JMX.
+ * Caches are not kept alive by their metrics, stats of collected caches are dropped.
+ */
+public final class CacheMetrics implements CacheMetricsMXBean {
+
+    /*
+    STATICS
+     */
+
+    private static final CacheMetrics INSTANCE = new CacheMetrics();
+
+    static {
+        //Exposes cache metrics through JMX.
+        INSTANCE.register("com.barden.library:type=Cache");
+    }
+
+    /**
+     * Gets cache metrics.
+     *
+     * @return Cache metrics.
+     */
+    @Nonnull
+    public static CacheMetrics getInstance() {
+        return INSTANCE;
+    }
+
+
+    /*
+    ROOT
+     */
+
+    private final Map<String, Supplier<CacheStatsSnapshot>> caches = new ConcurrentHashMap<>();
+
+    /**
+     * Creates cache metrics object.
+     */
+    private CacheMetrics() {
+    }
+
+    /**
+     * Adds cache stats.
+     * A cache with the same name is replaced.
+     *
+     * @param name  Cache name.
+     * @param stats Stats snapshot supplier of the cache. (Returning null removes the cache)
+     */
+    public void add(@Nonnull String name, @Nonnull Supplier<CacheStatsSnapshot> stats) {
+        this.caches.put(Objects.requireNonNull(name, "name cannot be null!"), Objects.requireNonNull(stats, "stats cannot be null!"));
+    }
+
+    /**
+     * Removes cache stats.
+     *
+     * @param name Cache name.
+     */
+    public void remove(@Nonnull String name) {
+        this.caches.remove(Objects.requireNonNull(name, "name cannot be null!"));
+    }
+
+    /**
+     * Removes cache stats if they are still of the given supplier.
+     *
+     * @param name  Cache name.
+     * @param stats Stats snapshot supplier of the cache.
+     */
+    void remove(@Nonnull String name, @Nonnull Supplier<CacheStatsSnapshot> stats) {
+        this.caches.remove(name, stats);
+    }
+
+    /**
+     * Finds stats of the cache name.
+     *
+     * @param name Cache name.
+     * @return Optional cache stats snapshot.
+     */
+    @Nonnull
+    public Optional<CacheStatsSnapshot> find(@Nonnull String name) {
+        Objects.requireNonNull(name, "name cannot be null!");
+        Supplier<CacheStatsSnapshot> stats = this.caches.get(name);
+        return stats == null ? Optional.empty() : Optional.ofNullable(this.get(name, stats));
+    }
+
+    /**
+     * Creates snapshots of cache stats.
+     *
+     * @return Cache stats snapshots by cache names.
+     */
+    @Nonnull
+    public Map<String, CacheStatsSnapshot> snapshot() {
+        Map<String, CacheStatsSnapshot> snapshots = new TreeMap<>();
+        this.caches.forEach((name, stats) -> {
+            CacheStatsSnapshot snapshot = this.get(name, stats);
+            if (snapshot != null)
+                snapshots.put(name, snapshot);
+        });
+        return snapshots;
+    }
+
+    /**
+     * Gets stats snapshot of the supplier, removes the cache if it is gone.
+     *
+     * @param name  Cache name.
+     * @param stats Stats snapshot supplier of the cache.
+     * @return Cache stats snapshot. (Optional)
+     */
+    @Nullable
+    private CacheStatsSnapshot get(@Nonnull String name, @Nonnull Supplier<CacheStatsSnapshot> stats) {
+        CacheStatsSnapshot snapshot = stats.get();
+        if (snapshot == null)
+            this.caches.remove(name, stats);
+        return snapshot;
+    }
+
+    /**
+     * Registers metrics to platform JMX server.
+     *
+     * @param name Object name.
+     */
+    private void register(@Nonnull String name) {
+        try {
+            ObjectName objectName = new ObjectName(name);
+            if (!ManagementFactory.getPlatformMBeanServer().isRegistered(objectName))
+                ManagementFactory.getPlatformMBeanServer().registerMBean(this, objectName);
+        } catch (Exception exception) {
+            BardenJavaLibrary.getLogger().error("Couldn't register cache metrics(" + name + ") to JMX!", exception);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Map<String, CacheStatsSnapshot> getCacheMetrics() {
+        return this.snapshot();
+    }
+}
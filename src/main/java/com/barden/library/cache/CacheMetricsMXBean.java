@@ -0,0 +1,16 @@
+package com.barden.library.cache;
+
+import java.util.Map;
+
+/**
+ * Cache metrics JMX interface.
+ */
+public interface CacheMetricsMXBean {
+
+    /**
+     * Gets stats snapshots of caches by cache names.
+     *
+     * @return Cache stats snapshots.
+     */
+    Map<String, CacheStatsSnapshot> getCacheMetrics();
+}
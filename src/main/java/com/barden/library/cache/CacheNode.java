@@ -0,0 +1,49 @@
+package com.barden.library.cache;
+
+import javax.annotation.Nonnull;
+
+/**
+ * Cache node class.
+ * Values are read and written lock-free, policy fields are guarded by the cache eviction lock.
+ *
+ * @param <K> Key type.
+ * @param <V> Value type.
+ */
+final class CacheNode<K, V> {
+
+    static final byte NONE = 0;
+    static final byte WINDOW = 1;
+    static final byte PROBATION = 2;
+    static final byte PROTECTED = 3;
+
+    final K key;
+    volatile V value;
+    volatile int weight;
+    volatile long writeTime;
+    volatile long accessTime;
+    volatile boolean retired;
+
+    //[POLICY]
+    byte queue = NONE;
+    int policyWeight;
+    CacheNode<K, V> previous;
+    CacheNode<K, V> next;
+    CacheNode<K, V> previousWrite;
+    CacheNode<K, V> nextWrite;
+
+    /**
+     * Creates cache node object.
+     *
+     * @param key    Key.
+     * @param value  Value.
+     * @param weight Weight.
+     * @param now    Current time in nanoseconds.
+     */
+    CacheNode(@Nonnull K key, @Nonnull V value, int weight, long now) {
+        this.key = key;
+        this.value = value;
+        this.weight = weight;
+        this.writeTime = now;
+        this.accessTime = now;
+    }
+}
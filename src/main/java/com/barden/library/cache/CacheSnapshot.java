@@ -0,0 +1,309 @@
+package com.barden.library.cache;
+
+import com.barden.library.BardenJavaLibrary;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiPredicate;
+
+/**
+ * Cache snapshot class.
+ * Hot entries of a cache (keys, serialized values and access frequencies) are written to a
+ * memory-mapped file, usually on shutdown, so the next start doesn't begin with a cold cache.
+ * <p>
+ * Opening a snapshot only decodes keys. Values stay in the mapping and are decoded one by one
+ * when they are asked for, each at most once. Entries older than the staleness bound, or rejected
+ * by the validator (e.g. a version check against the source), are never served.
+ *
+ * @param <K> Key type.
+ * @param <V> Value type.
+ */
+public final class CacheSnapshot<K, V> {
+
+    /*
+    STATICS
+     */
+
+    private static final int MAGIC = 0x42435350;
+    private static final int FORMAT = 1;
+    private static final int HEADER_SIZE = Integer.BYTES * 3 + Long.BYTES;
+    private static final int ENTRY_HEADER_SIZE = Integer.BYTES * 3 + Long.BYTES;
+
+    /**
+     * Writes hottest entries of the cache to the file.
+     * File is written next to the target and moved over it, so a crash never leaves a half written snapshot.
+     *
+     * @param path       Snapshot file path.
+     * @param cache      Cache.
+     * @param keyCodec   Key codec.
+     * @param valueCodec Value codec.
+     * @param limit      Maximum entry count.
+     * @param <K>        Key type.
+     * @param <V>        Value type.
+     * @return Written entry count.
+     * @throws IllegalStateException If snapshot couldn't be written.
+     */
+    public static <K, V> int write(@Nonnull Path path, @Nonnull BardenCache<K, V> cache, @Nonnull CacheCodec<K> keyCodec, @Nonnull CacheCodec<V> valueCodec, int limit) {
+        //Objects null check.
+        Objects.requireNonNull(path, "path cannot be null!");
+        Objects.requireNonNull(cache, "cache cannot be null!");
+        Objects.requireNonNull(keyCodec, "key codec cannot be null!");
+        Objects.requireNonNull(valueCodec, "value codec cannot be null!");
+
+        //Encodes hottest entries.
+        long now = System.nanoTime();
+        long wall = System.currentTimeMillis();
+        List<byte[]> keys = new ArrayList<>();
+        List<byte[]> values = new ArrayList<>();
+        List<Integer> frequencies = new ArrayList<>();
+        List<Long> writes = new ArrayList<>();
+        long size = HEADER_SIZE;
+        for (CacheNode<K, V> node : cache.hottest(limit)) {
+            V value = node.value;
+            byte[] key = keyCodec.encode(node.key);
+            byte[] bytes = valueCodec.encode(value);
+            keys.add(key);
+            values.add(bytes);
+            frequencies.add(cache.frequency(node.key));
+            writes.add(wall - TimeUnit.NANOSECONDS.toMillis(now - node.writeTime));
+            size += ENTRY_HEADER_SIZE + key.length + bytes.length;
+        }
+        if (size > Integer.MAX_VALUE)
+            throw new IllegalArgumentException("snapshot is too big, lower the limit!");
+
+        //Writes entries through a mapping of a temporary file, then replaces the target with it.
+        Path temporary = path.resolveSibling(path.getFileName() + ".tmp");
+        try {
+            try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+                buffer.putInt(MAGIC).putInt(FORMAT).putLong(wall).putInt(keys.size());
+                for (int i = 0; i < keys.size(); i++) {
+                    buffer.putInt(keys.get(i).length).putInt(values.get(i).length).putInt(frequencies.get(i)).putLong(writes.get(i));
+                    buffer.put(keys.get(i)).put(values.get(i));
+                }
+                buffer.force();
+            }
+            Files.move(temporary, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException exception) {
+            throw new IllegalStateException("Couldn't write cache snapshot(" + path + ")!", exception);
+        }
+        return keys.size();
+    }
+
+    /**
+     * Opens snapshot file.
+     * Missing, corrupted or incompatible files result with an empty snapshot.
+     *
+     * @param path       Snapshot file path.
+     * @param keyCodec   Key codec.
+     * @param valueCodec Value codec.
+     * @param maxAge     Maximum age of an entry since it is written to its cache.
+     * @param unit       Time unit.
+     * @param <K>        Key type.
+     * @param <V>        Value type.
+     * @return Cache snapshot.
+     */
+    @Nonnull
+    public static <K, V> CacheSnapshot<K, V> open(@Nonnull Path path, @Nonnull CacheCodec<K> keyCodec, @Nonnull CacheCodec<V> valueCodec, long maxAge, @Nonnull TimeUnit unit) {
+        //Objects null check.
+        Objects.requireNonNull(path, "path cannot be null!");
+        Objects.requireNonNull(keyCodec, "key codec cannot be null!");
+        Objects.requireNonNull(unit, "time unit cannot be null!");
+
+        CacheSnapshot<K, V> snapshot = new CacheSnapshot<>(valueCodec, unit.toMillis(maxAge));
+
+        //If there is no snapshot, no need to continue.
+        if (!Files.isRegularFile(path))
+            return snapshot;
+
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (buffer.limit() < HEADER_SIZE || buffer.getInt(0) != MAGIC || buffer.getInt(Integer.BYTES) != FORMAT) {
+                BardenJavaLibrary.getLogger().warn("Cache snapshot(" + path + ") is not compatible, skipped it!");
+                return snapshot;
+            }
+
+            //Indexes entries which are fresh enough, values are left in the mapping.
+            long oldest = System.currentTimeMillis() - snapshot.maxAge;
+            int count = buffer.getInt(Integer.BYTES * 2 + Long.BYTES);
+            int position = HEADER_SIZE;
+            for (int i = 0; i < count; i++) {
+                int keyLength = buffer.getInt(position);
+                int valueLength = buffer.getInt(position + Integer.BYTES);
+                int frequency = buffer.getInt(position + Integer.BYTES * 2);
+                long written = buffer.getLong(position + Integer.BYTES * 3);
+                int keyOffset = position + ENTRY_HEADER_SIZE;
+                position = keyOffset + keyLength + valueLength;
+
+                if (written < oldest)
+                    continue;
+                byte[] key = new byte[keyLength];
+                buffer.get(keyOffset, key);
+                snapshot.index.put(keyCodec.decode(key), new Entry(keyOffset + keyLength, valueLength, frequency, written));
+            }
+            snapshot.buffer = buffer;
+        } catch (Exception exception) {
+            snapshot.index.clear();
+            BardenJavaLibrary.getLogger().error("Couldn't open cache snapshot(" + path + ")!", exception);
+        }
+        return snapshot;
+    }
+
+
+    /*
+    ROOT
+     */
+
+    private final CacheCodec<V> valueCodec;
+    private final long maxAge;
+    private final Map<K, Entry> index = new ConcurrentHashMap<>();
+    private volatile ByteBuffer buffer;
+    private volatile BiPredicate<K, V> validator;
+
+    /**
+     * Creates cache snapshot object.
+     *
+     * @param valueCodec Value codec.
+     * @param maxAge     Maximum age of an entry in milliseconds.
+     */
+    private CacheSnapshot(@Nonnull CacheCodec<V> valueCodec, long maxAge) {
+        this.valueCodec = Objects.requireNonNull(valueCodec, "value codec cannot be null!");
+        this.maxAge = maxAge;
+    }
+
+    /**
+     * Gets remaining entry count.
+     *
+     * @return Remaining entry count.
+     */
+    public int size() {
+        return this.index.size();
+    }
+
+    /**
+     * Sets validator.
+     * An entry is served only if validator accepts it, such as when its version matches the source.
+     *
+     * @param validator Validator.
+     * @return Cache snapshot.
+     */
+    @Nonnull
+    public CacheSnapshot<K, V> validate(@Nonnull BiPredicate<K, V> validator) {
+        this.validator = Objects.requireNonNull(validator, "validator cannot be null!");
+        return this;
+    }
+
+    /**
+     * Takes value of the key out of the snapshot.
+     * Each entry is served at most once, following calls of the same key return null.
+     *
+     * @param key Key.
+     * @return Value. (Optional)
+     */
+    @Nullable
+    public V take(@Nonnull K key) {
+        Entry entry = this.index.remove(Objects.requireNonNull(key, "key cannot be null!"));
+        ByteBuffer buffer = this.buffer;
+        if (entry == null || buffer == null)
+            return null;
+
+        //If entry got stale since snapshot is opened, no need to continue.
+        if (System.currentTimeMillis() - entry.written > this.maxAge)
+            return null;
+
+        //Copies value bytes out of the mapping.
+        byte[] bytes = new byte[entry.length];
+        buffer.get(entry.offset, bytes);
+        V value = this.valueCodec.decode(bytes);
+
+        BiPredicate<K, V> validator = this.validator;
+        return validator == null || validator.test(key, value) ? value : null;
+    }
+
+    /**
+     * Feeds recorded access frequencies to the cache, so restored keys
+     * compete with their known popularity once they are loaded.
+     *
+     * @param cache Cache.
+     */
+    public void warm(@Nonnull BardenCache<K, ?> cache) {
+        Objects.requireNonNull(cache, "cache cannot be null!");
+        this.index.forEach((key, entry) -> cache.warm(key, entry.frequency));
+    }
+
+    /**
+     * Wraps cache loader, missing values are taken from the snapshot before the source is asked.
+     *
+     * @param source Source cache loader.
+     * @return Cache loader.
+     */
+    @Nonnull
+    public CacheLoader<K, V> loader(@Nonnull CacheLoader<K, V> source) {
+        Objects.requireNonNull(source, "source cannot be null!");
+        return new CacheLoader<>() {
+            @Nullable
+            @Override
+            public V load(@Nonnull K key) throws Exception {
+                V value = CacheSnapshot.this.take(key);
+                return value != null ? value : source.load(key);
+            }
+
+            @Nonnull
+            @Override
+            public Map<K, V> loadAll(@Nonnull Collection<? extends K> keys) throws Exception {
+                //Takes present ones from the snapshot.
+                Map<K, V> values = new HashMap<>();
+                List<K> missing = new ArrayList<>();
+                for (K key : keys) {
+                    V value = CacheSnapshot.this.take(key);
+                    if (value != null)
+                        values.put(key, value);
+                    else
+                        missing.add(key);
+                }
+
+                //Loads rest of them from the source.
+                if (!missing.isEmpty())
+                    values.putAll(source.loadAll(missing));
+                return values;
+            }
+        };
+    }
+
+    /**
+     * Closes snapshot, remaining entries are dropped.
+     * Mapping is released once it is garbage collected.
+     */
+    public void close() {
+        this.index.clear();
+        this.buffer = null;
+    }
+
+    /**
+     * Snapshot entry class.
+     */
+    private static final class Entry {
+        private final int offset;
+        private final int length;
+        private final int frequency;
+        private final long written;
+
+        private Entry(int offset, int length, int frequency, long written) {
+            this.offset = offset;
+            this.length = length;
+            this.frequency = frequency;
+            this.written = written;
+        }
+    }
+}
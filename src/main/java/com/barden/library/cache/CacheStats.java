@@ -0,0 +1,84 @@
+package com.barden.library.cache;
+
+import javax.annotation.Nonnull;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Cache stats class.
+ * Counts cache activity with striped counters, so recording never contends between threads.
+ */
+public final class CacheStats {
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder loads = new LongAdder();
+    private final LongAdder loadFailures = new LongAdder();
+    private final LongAdder loadTime = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder evictionWeight = new LongAdder();
+
+    /**
+     * Records a hit.
+     */
+    public void recordHit() {
+        this.hits.increment();
+    }
+
+    /**
+     * Records a miss.
+     */
+    public void recordMiss() {
+        this.misses.increment();
+    }
+
+    /**
+     * Records a load.
+     *
+     * @param time   Load time in nanoseconds.
+     * @param failed If load failed or not.
+     */
+    public void recordLoad(long time, boolean failed) {
+        this.loads.increment();
+        this.loadTime.add(time);
+        if (failed)
+            this.loadFailures.increment();
+    }
+
+    /**
+     * Records an eviction.
+     * Entries removed by size or expiry are evictions, explicit removals are not.
+     *
+     * @param weight Weight of the evicted entry.
+     */
+    public void recordEviction(long weight) {
+        this.evictions.increment();
+        this.evictionWeight.add(weight);
+    }
+
+    /**
+     * Creates snapshot of the stats.
+     *
+     * @param size   Current entry count.
+     * @param weight Current total weight.
+     * @return Cache stats snapshot.
+     */
+    @Nonnull
+    public CacheStatsSnapshot snapshot(long size, long weight) {
+        long hits = this.hits.sum();
+        long misses = this.misses.sum();
+        long requests = hits + misses;
+        long loads = this.loads.sum();
+        return new CacheStatsSnapshot(
+                hits,
+                misses,
+                requests == 0 ? 1.0D : (double) hits / requests,
+                requests == 0 ? 0.0D : (double) misses / requests,
+                loads,
+                this.loadFailures.sum(),
+                loads == 0 ? 0.0D : this.loadTime.sum() / 1_000_000.0D / loads,
+                this.evictions.sum(),
+                this.evictionWeight.sum(),
+                size,
+                weight);
+    }
+}
@@ -0,0 +1,153 @@
+package com.barden.library.cache;
+
+import java.beans.ConstructorProperties;
+
+/**
+ * Cache stats snapshot class.
+ * Durations are in milliseconds. Weight is in the unit of the cache weigher,
+ * which makes it the estimated retained size when weigher measures bytes.
+ */
+public final class CacheStatsSnapshot {
+
+    private final long hits;
+    private final long misses;
+    private final double hitRate;
+    private final double missRate;
+    private final long loads;
+    private final long loadFailures;
+    private final double loadMean;
+    private final long evictions;
+    private final long evictionWeight;
+    private final long size;
+    private final long weight;
+
+    /**
+     * Creates cache stats snapshot object.
+     *
+     * @param hits           Hit count.
+     * @param misses         Miss count.
+     * @param hitRate        Hit rate.
+     * @param missRate       Miss rate.
+     * @param loads          Load count.
+     * @param loadFailures   Failed load count.
+     * @param loadMean       Mean load time.
+     * @param evictions      Eviction count.
+     * @param evictionWeight Total weight of evicted entries.
+     * @param size           Entry count.
+     * @param weight         Total weight of entries.
+     */
+    @ConstructorProperties({"hits", "misses", "hitRate", "missRate", "loads", "loadFailures", "loadMean", "evictions", "evictionWeight", "size", "weight"})
+    public CacheStatsSnapshot(long hits, long misses, double hitRate, double missRate, long loads, long loadFailures, double loadMean,
+                              long evictions, long evictionWeight, long size, long weight) {
+        this.hits = hits;
+        this.misses = misses;
+        this.hitRate = hitRate;
+        this.missRate = missRate;
+        this.loads = loads;
+        this.loadFailures = loadFailures;
+        this.loadMean = loadMean;
+        this.evictions = evictions;
+        this.evictionWeight = evictionWeight;
+        this.size = size;
+        this.weight = weight;
+    }
+
+    /**
+     * Gets hit count.
+     *
+     * @return Hit count.
+     */
+    public long getHits() {
+        return this.hits;
+    }
+
+    /**
+     * Gets miss count.
+     *
+     * @return Miss count.
+     */
+    public long getMisses() {
+        return this.misses;
+    }
+
+    /**
+     * Gets hit rate.
+     *
+     * @return Hit rate. (1 if there is no request)
+     */
+    public double getHitRate() {
+        return this.hitRate;
+    }
+
+    /**
+     * Gets miss rate.
+     *
+     * @return Miss rate. (0 if there is no request)
+     */
+    public double getMissRate() {
+        return this.missRate;
+    }
+
+    /**
+     * Gets load count.
+     *
+     * @return Load count.
+     */
+    public long getLoads() {
+        return this.loads;
+    }
+
+    /**
+     * Gets failed load count.
+     *
+     * @return Failed load count.
+     */
+    public long getLoadFailures() {
+        return this.loadFailures;
+    }
+
+    /**
+     * Gets mean load time.
+     *
+     * @return Mean load time.
+     */
+    public double getLoadMean() {
+        return this.loadMean;
+    }
+
+    /**
+     * Gets eviction count.
+     *
+     * @return Eviction count.
+     */
+    public long getEvictions() {
+        return this.evictions;
+    }
+
+    /**
+     * Gets total weight of evicted entries.
+     *
+     * @return Total weight of evicted entries.
+     */
+    public long getEvictionWeight() {
+        return this.evictionWeight;
+    }
+
+    /**
+     * Gets entry count.
+     *
+     * @return Entry count.
+     */
+    public long getSize() {
+        return this.size;
+    }
+
+    /**
+     * Gets total weight of entries.
+     *
+     * @return Total weight of entries.
+     */
+    public long getWeight() {
+        return this.weight;
+    }
+}
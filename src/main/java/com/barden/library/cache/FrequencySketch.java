@@ -0,0 +1,121 @@
+package com.barden.library.cache;
+
+import javax.annotation.Nonnull;
+
+/**
+ * Frequency sketch class.
+ * A count-min sketch with 4 bit counters which estimates popularity of keys
+ * within a sliding time window. Counters are halved periodically, so
+ * popularity ages out. (Not thread safe, it is guarded by the cache eviction lock.)
+ */
+final class FrequencySketch {
+
+    private static final long[] SEEDS = {0xc3a5c85c97cb3127L, 0xb492b66fbe98f273L, 0x9ae16a3b2f90404fL, 0xcbf29ce484222325L};
+    private static final long RESET_MASK = 0x7777777777777777L;
+
+    private long[] table = new long[0];
+    private int mask;
+    private int sampleSize;
+    private int size;
+
+    /**
+     * Ensures capacity of the sketch.
+     * If it grows, previous counters are discarded.
+     *
+     * @param maximum Expected maximum number of entries.
+     */
+    void ensureCapacity(long maximum) {
+        int capacity = (int) Math.min(Math.max(maximum, 16), 1 << 26);
+        if (this.table.length >= capacity)
+            return;
+
+        this.table = new long[Integer.highestOneBit(capacity - 1) << 1];
+        this.mask = this.table.length - 1;
+        this.sampleSize = 10 * capacity;
+        this.size = 0;
+    }
+
+    /**
+     * Gets estimated frequency of the key.
+     *
+     * @param key Key.
+     * @return Estimated frequency. (0 to 15)
+     */
+    int frequency(@Nonnull Object key) {
+        int hash = spread(key.hashCode());
+        int start = (hash & 3) << 2;
+        int frequency = 15;
+        for (int i = 0; i < 4; i++) {
+            int count = (int) ((this.table[this.indexOf(hash, i)] >>> ((start + i) << 2)) & 0xfL);
+            frequency = Math.min(frequency, count);
+        }
+        return frequency;
+    }
+
+    /**
+     * Increments frequency of the key.
+     *
+     * @param key Key.
+     */
+    void increment(@Nonnull Object key) {
+        int hash = spread(key.hashCode());
+        int start = (hash & 3) << 2;
+        boolean added = false;
+        for (int i = 0; i < 4; i++)
+            added |= this.incrementAt(this.indexOf(hash, i), start + i);
+
+        //Ages counters once enough samples are collected.
+        if (added && ++this.size == this.sampleSize)
+            this.reset();
+    }
+
+    /**
+     * Increments counter at given index if it is not saturated.
+     *
+     * @param index   Table index.
+     * @param counter Counter index in the table slot.
+     * @return If counter is incremented or not.
+     */
+    private boolean incrementAt(int index, int counter) {
+        int offset = counter << 2;
+        long mask = 0xfL << offset;
+        if ((this.table[index] & mask) == mask)
+            return false;
+        this.table[index] += 1L << offset;
+        return true;
+    }
+
+    /**
+     * Halves all counters.
+     */
+    private void reset() {
+        for (int i = 0; i < this.table.length; i++)
+            this.table[i] = (this.table[i] >>> 1) & RESET_MASK;
+        this.size /= 2;
+    }
+
+    /**
+     * Gets table index of the hash for given row.
+     *
+     * @param hash Hash.
+     * @param row  Row.
+     * @return Table index.
+     */
+    private int indexOf(int hash, int row) {
+        long index = (hash + SEEDS[row]) * SEEDS[row];
+        index += index >>> 32;
+        return (int) index & this.mask;
+    }
+
+    /**
+     * Spreads hash bits.
+     *
+     * @param hash Hash.
+     * @return Spread hash.
+     */
+    private static int spread(int hash) {
+        hash = ((hash >>> 16) ^ hash) * 0x45d9f3b;
+        hash = ((hash >>> 16) ^ hash) * 0x45d9f3b;
+        return (hash >>> 16) ^ hash;
+    }
+}
@@ -0,0 +1,356 @@
+package com.barden.library.cache;
+
+import com.barden.library.BardenJavaLibrary;
+import com.barden.library.database.DatabaseProvider;
+import com.barden.library.database.redis.RedisScript;
+import com.barden.library.database.redis.event.RedisMessageEvent;
+import com.barden.library.event.EventEditor;
+import com.barden.library.event.EventRepository;
+import com.barden.library.scheduler.SchedulerProvider;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import redis.clients.jedis.Jedis;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Near cache class.
+ * A two level cache, values are kept in a local cache (L1) in front of redis (L2)
+ * which is shared by all nodes. When a node writes or deletes a key, other nodes
+ * drop their local copy through invalidation messages on the pub/sub channel of the cache.
+ * <p>
+ * Every write gets a version from a redis counter. Invalidations carry the version
+ * and are remembered for a while as tombstones, so a late message never drops a
+ * newer value and a slow read never brings an invalidated value back.
+ * Invalidations are batched, a node publishes at most one message per flush interval.
+ *
+ * @param <V> Value type.
+ */
+public final class NearCache<V> {
+
+    /**
+     * Key prefix of near caches.
+     */
+    public static final String KEY_PREFIX = "barden:near:";
+
+    private static final long FLUSH_INTERVAL = 10;
+    private static final long TOMBSTONE_TTL = 30;
+    private static final int LOCK_STRIPES = 64;
+    private static final byte[] VALUE = "v".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] VERSION = "ver".getBytes(StandardCharsets.UTF_8);
+
+    private static final RedisScript SET = new RedisScript(
+            "local version = redis.call('incr', KEYS[2]) " +
+                    "redis.call('hset', KEYS[1], 'v', ARGV[1], 'ver', version) " +
+                    "if tonumber(ARGV[2]) > 0 then redis.call('pexpire', KEYS[1], ARGV[2]) end " +
+                    "return version");
+    private static final RedisScript DELETE = new RedisScript(
+            "local version = redis.call('incr', KEYS[2]) " +
+                    "redis.call('del', KEYS[1]) " +
+                    "return version");
+
+    private final String name;
+    private final String channel;
+    private final String node = UUID.randomUUID().toString();
+    private final byte[] clockKey;
+    private final CacheCodec<V> codec;
+    private final long ttl;
+
+    private final BardenCache<String, Versioned<V>> local;
+    private final BardenCache<String, Long> tombstones;
+    private final Map<String, Long> invalidations = new ConcurrentHashMap<>();
+    private final AtomicBoolean flushing = new AtomicBoolean();
+    private final Object[] locks = new Object[LOCK_STRIPES];
+    private final EventEditor<RedisMessageEvent> subscription;
+
+    /**
+     * Creates near cache object.
+     *
+     * @param name        Cache name. Nodes with the same name share the same values.
+     * @param codec       Value codec.
+     * @param maximumSize Maximum number of local entries.
+     * @param ttl         Time to live of values, both local and in redis. (Zero or less to never expire)
+     * @param unit        Time unit.
+     */
+    public NearCache(@Nonnull String name, @Nonnull CacheCodec<V> codec, long maximumSize, long ttl, @Nonnull TimeUnit unit) {
+        this.name = Objects.requireNonNull(name, "name cannot be null!");
+        this.codec = Objects.requireNonNull(codec, "codec cannot be null!");
+        this.ttl = Objects.requireNonNull(unit, "time unit cannot be null!").toMillis(ttl);
+        this.channel = KEY_PREFIX + name;
+        this.clockKey = (KEY_PREFIX + name + ":clock").getBytes(StandardCharsets.UTF_8);
+        for (int i = 0; i < this.locks.length; i++)
+            this.locks[i] = new Object();
+
+        //Values without time to live never expire, neither locally nor in redis.
+        BardenCacheBuilder<String, Versioned<V>> local = BardenCache.<String, Versioned<V>>builder()
+                .name("near:" + name)
+                .maximumSize(maximumSize);
+        if (this.ttl > 0)
+            local.expireAfterWrite(this.ttl, TimeUnit.MILLISECONDS);
+        this.local = local.build();
+        this.tombstones = BardenCache.<String, Long>builder()
+                .maximumSize(Math.max(maximumSize, 1024))
+                .expireAfterWrite(TOMBSTONE_TTL, TimeUnit.SECONDS)
+                .build();
+
+        //Listens invalidations of other nodes.
+        this.subscription = EventRepository.of(RedisMessageEvent.class)
+                .filter(event -> event.getChannel().equals(this.channel))
+                .consume(event -> this.receive(event.getMessageAsJson()));
+        DatabaseProvider.redis().subscribe(this.channel);
+    }
+
+    /**
+     * Gets name.
+     *
+     * @return Cache name.
+     */
+    @Nonnull
+    public String getName() {
+        return this.name;
+    }
+
+    /**
+     * Gets stats.
+     * Hits and misses are of the local cache, loads are reads from redis.
+     *
+     * @return Cache stats snapshot.
+     */
+    @Nonnull
+    public CacheStatsSnapshot getStats() {
+        return this.local.getStats();
+    }
+
+    /**
+     * Gets value of the key.
+     * Local cache is checked first, then redis.
+     *
+     * @param key Key.
+     * @return Value. (Optional)
+     */
+    @Nullable
+    public V get(@Nonnull String key) {
+        Objects.requireNonNull(key, "key cannot be null!");
+
+        //If value is in local cache, no need to continue.
+        Versioned<V> versioned = this.local.getIfPresent(key);
+        if (versioned != null)
+            return versioned.value;
+
+        //Reads value and its version from redis.
+        List<byte[]> fields;
+        long start = System.nanoTime();
+        try (Jedis jedis = DatabaseProvider.redis().getClient().getResource()) {
+            fields = jedis.hmget(this.key(key), VALUE, VERSION);
+        } catch (RuntimeException exception) {
+            this.local.getStatsCounter().recordLoad(System.nanoTime() - start, true);
+            throw exception;
+        }
+        this.local.getStatsCounter().recordLoad(System.nanoTime() - start, false);
+        if (fields.get(0) == null || fields.get(1) == null)
+            return null;
+
+        //Caches value locally unless it is already invalidated.
+        V value = this.codec.decode(fields.get(0));
+        this.offer(key, value, Long.parseLong(new String(fields.get(1), StandardCharsets.UTF_8)));
+        return value;
+    }
+
+    /**
+     * Sets value of the key.
+     *
+     * @param key   Key.
+     * @param value Value.
+     */
+    public void set(@Nonnull String key, @Nonnull V value) {
+        //Objects null check.
+        Objects.requireNonNull(key, "key cannot be null!");
+        Objects.requireNonNull(value, "value cannot be null!");
+
+        //Writes value to redis.
+        long version;
+        try (Jedis jedis = DatabaseProvider.redis().getClient().getResource()) {
+            version = (Long) SET.evalBinary(jedis, List.of(this.key(key), this.clockKey), List.of(this.codec.encode(value), String.valueOf(this.ttl).getBytes(StandardCharsets.UTF_8)));
+        }
+
+        //Caches value locally and invalidates it on other nodes.
+        this.offer(key, value, version);
+        this.invalidateRemote(key, version);
+    }
+
+    /**
+     * Deletes value of the key.
+     *
+     * @param key Key.
+     */
+    public void delete(@Nonnull String key) {
+        Objects.requireNonNull(key, "key cannot be null!");
+
+        //Deletes value from redis.
+        long version;
+        try (Jedis jedis = DatabaseProvider.redis().getClient().getResource()) {
+            version = (Long) DELETE.evalBinary(jedis, List.of(this.key(key), this.clockKey), List.of());
+        }
+
+        //Drops value locally and on other nodes.
+        this.invalidateLocal(key, version);
+        this.invalidateRemote(key, version);
+    }
+
+    /**
+     * Closes near cache.
+     * Stops listening invalidations, clears local cache and removes its stats.
+     */
+    public void close() {
+        this.subscription.unregister();
+        DatabaseProvider.safeRedis().ifPresent(redis -> redis.unsubscribe(this.channel));
+        this.flush();
+        this.local.close();
+    }
+
+    /**
+     * Gets redis key of the key.
+     *
+     * @param key Key.
+     * @return Redis key.
+     */
+    @Nonnull
+    private byte[] key(@Nonnull String key) {
+        return (KEY_PREFIX + this.name + ":" + key).getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Gets lock of the key.
+     * Offers and invalidations of the same key hold it, so an invalidation is never undone.
+     *
+     * @param key Key.
+     * @return Lock object.
+     */
+    @Nonnull
+    private Object lock(@Nonnull String key) {
+        return this.locks[(key.hashCode() & Integer.MAX_VALUE) % this.locks.length];
+    }
+
+    /**
+     * Caches value locally if its version is newer than what is known.
+     *
+     * @param key     Key.
+     * @param value   Value.
+     * @param version Version.
+     */
+    private void offer(@Nonnull String key, @Nonnull V value, long version) {
+        synchronized (this.lock(key)) {
+            //If key is invalidated with a newer version, no need to continue.
+            //Versions are unique, a tombstone of the same version is the invalidation of this very write.
+            Long tombstone = this.tombstones.getIfPresent(key);
+            if (tombstone != null && tombstone > version)
+                return;
+
+            //If local value is newer, no need to continue.
+            Versioned<V> present = this.local.getIfPresent(key);
+            if (present != null && present.version >= version)
+                return;
+
+            this.local.put(key, new Versioned<>(value, version));
+        }
+    }
+
+    /**
+     * Invalidates local value of the key if it is older than given version.
+     *
+     * @param key     Key.
+     * @param version Version.
+     */
+    private void invalidateLocal(@Nonnull String key, long version) {
+        synchronized (this.lock(key)) {
+            //Remembers invalidation.
+            Long tombstone = this.tombstones.getIfPresent(key);
+            if (tombstone == null || tombstone < version)
+                this.tombstones.put(key, version);
+
+            //Drops local value unless it is newer.
+            Versioned<V> present = this.local.getIfPresent(key);
+            if (present != null && present.version < version)
+                this.local.invalidate(key);
+        }
+    }
+
+    /**
+     * Queues invalidation of the key for other nodes.
+     *
+     * @param key     Key.
+     * @param version Version.
+     */
+    private void invalidateRemote(@Nonnull String key, long version) {
+        this.invalidations.merge(key, version, Math::max);
+
+        //First invalidation of the interval schedules flush.
+        if (this.flushing.compareAndSet(false, true))
+            SchedulerProvider.runLater(this::flush, FLUSH_INTERVAL, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Publishes queued invalidations.
+     */
+    private void flush() {
+        this.flushing.set(false);
+
+        //Collects queued invalidations.
+        JsonObject keys = new JsonObject();
+        for (String key : this.invalidations.keySet()) {
+            Long version = this.invalidations.remove(key);
+            if (version != null)
+                keys.addProperty(key, version);
+        }
+        if (keys.size() == 0)
+            return;
+
+        //Publishes them with a single message.
+        JsonObject message = new JsonObject();
+        message.addProperty("node", this.node);
+        message.add("keys", keys);
+        try (Jedis jedis = DatabaseProvider.redis().getClient().getResource()) {
+            jedis.publish(this.channel, message.toString());
+        } catch (Exception exception) {
+            BardenJavaLibrary.getLogger().error("Couldn't publish near cache(" + this.name + ") invalidations!", exception);
+        }
+    }
+
+    /**
+     * Receives invalidations.
+     *
+     * @param message Invalidation message.
+     */
+    private void receive(@Nonnull JsonObject message) {
+        //If message is sent by this node, no need to continue.
+        if (this.node.equals(message.get("node").getAsString()))
+            return;
+
+        for (Map.Entry<String, JsonElement> entry : message.getAsJsonObject("keys").entrySet())
+            this.invalidateLocal(entry.getKey(), entry.getValue().getAsLong());
+    }
+
+    /**
+     * Versioned value class.
+     *
+     * @param <V> Value type.
+     */
+    private static final class Versioned<V> {
+        private final V value;
+        private final long version;
+
+        private Versioned(@Nonnull V value, long version) {
+            this.value = value;
+            this.version = version;
+        }
+    }
+}
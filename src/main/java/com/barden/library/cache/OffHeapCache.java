@@ -0,0 +1,317 @@
+package com.barden.library.cache;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Off-heap cache class.
+ * Values are serialized with a codec and appended to direct buffer slabs (segments),
+ * only keys and small index entries live on the heap. Segments are filled one after
+ * another, when all of them are full the oldest one is recycled and its entries are evicted.
+ * <p>
+ * Reads are lock-free and copy only the bytes of the value. Each segment has a generation
+ * which is bumped before it is overwritten, a read which races with recycling notices the
+ * generation change and counts as a miss instead of decoding overwritten bytes.
+ *
+ * @param <K> Key type.
+ * @param <V> Value type.
+ */
+public final class OffHeapCache<K, V> {
+
+    /**
+     * Default segment size in bytes.
+     */
+    public static final int DEFAULT_SEGMENT_SIZE = 8 * 1024 * 1024;
+
+    private final CacheCodec<V> codec;
+    private final Segment<K>[] segments;
+    private final int segmentSize;
+    private final Map<K, Entry<K>> data = new ConcurrentHashMap<>();
+    private final CacheStats stats = new CacheStats();
+    private int current;
+
+    /**
+     * Creates off-heap cache object with default segment size.
+     *
+     * @param codec    Value codec.
+     * @param capacity Off-heap capacity in bytes.
+     */
+    public OffHeapCache(@Nonnull CacheCodec<V> codec, long capacity) {
+        this(codec, capacity, DEFAULT_SEGMENT_SIZE);
+    }
+
+    /**
+     * Creates off-heap cache object.
+     *
+     * @param codec       Value codec.
+     * @param capacity    Off-heap capacity in bytes.
+     * @param segmentSize Segment size in bytes. Values bigger than a segment can't be cached.
+     */
+    public OffHeapCache(@Nonnull CacheCodec<V> codec, long capacity, int segmentSize) {
+        this.codec = Objects.requireNonNull(codec, "codec cannot be null!");
+        if (segmentSize <= 0)
+            throw new IllegalArgumentException("segment size must be positive!");
+        if (capacity < segmentSize * 2L)
+            throw new IllegalArgumentException("capacity must be at least two segments!");
+        if (capacity / segmentSize > Integer.MAX_VALUE)
+            throw new IllegalArgumentException("capacity is too big for the segment size!");
+
+        this.segmentSize = segmentSize;
+        this.segments = segments((int) (capacity / segmentSize));
+        for (int i = 0; i < this.segments.length; i++)
+            this.segments[i] = new Segment<>(ByteBuffer.allocateDirect(segmentSize));
+    }
+
+    /**
+     * Gets capacity.
+     *
+     * @return Off-heap capacity in bytes.
+     */
+    public long getCapacity() {
+        return (long) this.segments.length * this.segmentSize;
+    }
+
+    /**
+     * Gets segment size.
+     *
+     * @return Segment size in bytes.
+     */
+    public int getSegmentSize() {
+        return this.segmentSize;
+    }
+
+    /**
+     * Gets segment count.
+     *
+     * @return Segment count.
+     */
+    public int getSegments() {
+        return this.segments.length;
+    }
+
+    /**
+     * Gets stats.
+     * Weight is the number of bytes written to segments, including replaced and invalidated values.
+     *
+     * @return Cache stats snapshot.
+     */
+    @Nonnull
+    public CacheStatsSnapshot getStats() {
+        long used = 0;
+        for (Segment<K> segment : this.segments)
+            used += segment.position;
+        return this.stats.snapshot(this.size(), used);
+    }
+
+    /**
+     * Gets entry count.
+     *
+     * @return Entry count.
+     */
+    public int size() {
+        return this.data.size();
+    }
+
+    /**
+     * Gets if key is present.
+     *
+     * @param key Key.
+     * @return If key is present.
+     */
+    public boolean contains(@Nonnull K key) {
+        Entry<K> entry = this.data.get(Objects.requireNonNull(key, "key cannot be null!"));
+        return entry != null && this.segments[entry.segment].generation == entry.generation;
+    }
+
+    /**
+     * Gets value of the key if it is present.
+     *
+     * @param key Key.
+     * @return Value. (Optional)
+     */
+    @Nullable
+    public V getIfPresent(@Nonnull K key) {
+        byte[] bytes = this.getBytes(key);
+        return bytes == null ? null : this.codec.decode(bytes);
+    }
+
+    /**
+     * Gets serialized value of the key if it is present.
+     *
+     * @param key Key.
+     * @return Copy of the serialized value. (Optional)
+     */
+    @Nullable
+    public byte[] getBytes(@Nonnull K key) {
+        Entry<K> entry = this.data.get(Objects.requireNonNull(key, "key cannot be null!"));
+        if (entry == null) {
+            this.stats.recordMiss();
+            return null;
+        }
+
+        //Copies value bytes out of the segment.
+        Segment<K> segment = this.segments[entry.segment];
+        if (segment.generation != entry.generation)
+            return this.stale(entry);
+        byte[] bytes = new byte[entry.length];
+        segment.buffer.get(entry.offset, bytes);
+
+        //If segment is recycled while copying, bytes might be overwritten.
+        VarHandle.acquireFence();
+        if (segment.generation != entry.generation)
+            return this.stale(entry);
+        this.stats.recordHit();
+        return bytes;
+    }
+
+    /**
+     * Puts value of the key.
+     *
+     * @param key   Key.
+     * @param value Value.
+     * @throws IllegalArgumentException If serialized value is bigger than a segment.
+     */
+    public void put(@Nonnull K key, @Nonnull V value) {
+        this.putBytes(key, this.codec.encode(Objects.requireNonNull(value, "value cannot be null!")));
+    }
+
+    /**
+     * Puts serialized value of the key.
+     *
+     * @param key   Key.
+     * @param bytes Serialized value.
+     * @throws IllegalArgumentException If serialized value is bigger than a segment.
+     */
+    public void putBytes(@Nonnull K key, @Nonnull byte[] bytes) {
+        //Objects null check.
+        Objects.requireNonNull(key, "key cannot be null!");
+        Objects.requireNonNull(bytes, "bytes cannot be null!");
+        if (bytes.length > this.segmentSize)
+            throw new IllegalArgumentException("value(" + bytes.length + " bytes) is bigger than a segment!");
+
+        synchronized (this) {
+            //Moves to the next segment if value doesn't fit.
+            Segment<K> segment = this.segments[this.current];
+            if (this.segmentSize - segment.position < bytes.length) {
+                this.current = (this.current + 1) % this.segments.length;
+                segment = this.segments[this.current];
+                this.recycle(segment, true);
+            }
+
+            //Appends value.
+            Entry<K> entry = new Entry<>(key, this.current, segment.generation, segment.position, bytes.length);
+            segment.buffer.put(segment.position, bytes);
+            segment.position += bytes.length;
+            segment.entries.add(entry);
+            this.data.put(key, entry);
+        }
+    }
+
+    /**
+     * Invalidates entry of the key.
+     * Bytes of the value stay in the segment until it is recycled.
+     *
+     * @param key Key.
+     */
+    public void invalidate(@Nonnull K key) {
+        this.data.remove(Objects.requireNonNull(key, "key cannot be null!"));
+    }
+
+    /**
+     * Invalidates all entries and resets segments.
+     */
+    public synchronized void invalidateAll() {
+        this.data.clear();
+        for (Segment<K> segment : this.segments)
+            this.recycle(segment, false);
+        this.current = 0;
+    }
+
+    /**
+     * Recycles segment, removes its entries.
+     *
+     * @param segment Segment.
+     * @param evict   If removed entries are recorded as evictions or not. (Explicit removals are not evictions)
+     */
+    private void recycle(@Nonnull Segment<K> segment, boolean evict) {
+        //Bumps generation first, so readers notice the segment is being overwritten.
+        //Fence keeps following buffer writes from becoming visible before the new generation.
+        segment.generation++;
+        VarHandle.storeStoreFence();
+        for (Entry<K> entry : segment.entries)
+            if (this.data.remove(entry.key, entry) && evict)
+                this.stats.recordEviction(entry.length);
+        segment.entries = new ArrayList<>();
+        segment.position = 0;
+    }
+
+    /**
+     * Removes stale entry.
+     *
+     * @param entry Entry.
+     * @return Always null.
+     */
+    @Nullable
+    private byte[] stale(@Nonnull Entry<K> entry) {
+        this.stats.recordMiss();
+        this.data.remove(entry.key, entry);
+        return null;
+    }
+
+    /**
+     * Creates segment array.
+     *
+     * @param length Array length.
+     * @param <K>    Key type.
+     * @return Segment array.
+     */
+    @Nonnull
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static <K> Segment<K>[] segments(int length) {
+        return new Segment[length];
+    }
+
+    /**
+     * Segment class.
+     *
+     * @param <K> Key type.
+     */
+    private static final class Segment<K> {
+        private final ByteBuffer buffer;
+        private volatile int generation;
+        private int position;
+        private List<Entry<K>> entries = new ArrayList<>();
+
+        private Segment(@Nonnull ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+    }
+
+    /**
+     * Index entry class.
+     *
+     * @param <K> Key type.
+     */
+    private static final class Entry<K> {
+        private final K key;
+        private final int segment;
+        private final int generation;
+        private final int offset;
+        private final int length;
+
+        private Entry(@Nonnull K key, int segment, int generation, int offset, int length) {
+            this.key = key;
+            this.segment = segment;
+            this.generation = generation;
+            this.offset = offset;
+            this.length = length;
+        }
+    }
+}
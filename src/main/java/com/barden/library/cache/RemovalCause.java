@@ -0,0 +1,11 @@
+package com.barden.library.cache;
+
+/**
+ * Cache removal causes.
+ */
+public enum RemovalCause {
+    EXPLICIT,
+    REPLACED,
+    SIZE,
+    EXPIRED
+}
@@ -0,0 +1,23 @@
+package com.barden.library.cache;
+
+import javax.annotation.Nonnull;
+
+/**
+ * Cache removal listener interface.
+ *
+ * @param <K> Key type.
+ * @param <V> Value type.
+ */
+@FunctionalInterface
+public interface RemovalListener<K, V> {
+
+    /**
+     * Handles removal of a cache entry.
+     * It runs asynchronously, after the entry is removed.
+     *
+     * @param key   Key.
+     * @param value Value.
+     * @param cause Removal cause.
+     */
+    void onRemoval(@Nonnull K key, @Nonnull V value, @Nonnull RemovalCause cause);
+}
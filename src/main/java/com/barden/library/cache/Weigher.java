@@ -0,0 +1,34 @@
+package com.barden.library.cache;
+
+import javax.annotation.Nonnull;
+
+/**
+ * Cache weigher interface.
+ *
+ * @param <K> Key type.
+ * @param <V> Value type.
+ */
+@FunctionalInterface
+public interface Weigher<K, V> {
+
+    /**
+     * Gets weigher which weighs every entry as 1.
+     *
+     * @param <K> Key type.
+     * @param <V> Value type.
+     * @return Singleton weigher.
+     */
+    @Nonnull
+    static <K, V> Weigher<K, V> singleton() {
+        return (key, value) -> 1;
+    }
+
+    /**
+     * Weighs a cache entry.
+     *
+     * @param key   Key.
+     * @param value Value.
+     * @return Weight. (Cannot be negative)
+     */
+    int weigh(@Nonnull K key, @Nonnull V value);
+}
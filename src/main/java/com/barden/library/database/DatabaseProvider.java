@@ -1,5 +1,6 @@
 package com.barden.library.database;
 
+import com.barden.library.TerminationReport;
 import com.barden.library.database.influx.InfluxProvider;
 import com.barden.library.database.mongo.MongoProvider;
 import com.barden.library.database.redis.RedisProvider;
@@ -7,8 +8,18 @@ import com.barden.library.database.timescale.TimescaleProvider;
 import com.barden.library.file.TomlFileLoader;
 import com.electronwill.nightconfig.core.CommentedConfig;
 
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
 import javax.annotation.Nonnull;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.BooleanSupplier;
 
 /**
  * Database repository class.
@@ -68,6 +79,61 @@ public final class DatabaseProvider {
                     config.getOrElse("timescale.database", ""));
     }
 
+    /**
+     * Closes database providers in parallel.
+     *
+     * @param timeout Overall timeout.
+     * @param unit    Time unit.
+     * @return Provider name and close outcome map.
+     */
+    @Nonnull
+    public static Map<String, TerminationReport.Outcome> terminate(long timeout, @Nonnull TimeUnit unit) {
+        //Declares deadline.
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+
+        //Declares closing providers.
+        Map<String, BooleanSupplier> providers = new LinkedHashMap<>();
+        if (mongoProvider != null)
+            providers.put("mongo", mongoProvider::close);
+        if (redisProvider != null)
+            providers.put("redis", redisProvider::close);
+        if (influxProvider != null)
+            providers.put("influx", influxProvider::close);
+        if (timescaleProvider != null)
+            providers.put("timescale", timescaleProvider::close);
+
+        //Closes providers in parallel.
+        ExecutorService service = Executors.newCachedThreadPool(new ThreadFactoryBuilder()
+                .setDaemon(true)
+                .setNameFormat("Database Terminate - #%d")
+                .build());
+        Map<String, CompletableFuture<Boolean>> futures = new LinkedHashMap<>();
+        providers.forEach((name, close) -> futures.put(name, CompletableFuture.supplyAsync(close::getAsBoolean, service)));
+        service.shutdown();
+
+        //Collects outcomes under the deadline.
+        Map<String, TerminationReport.Outcome> outcomes = new LinkedHashMap<>();
+        futures.forEach((name, future) -> {
+            try {
+                boolean closed = future.get(Math.max(deadline - System.nanoTime(), 0), TimeUnit.NANOSECONDS);
+                outcomes.put(name, closed ? TerminationReport.Outcome.CLOSED : TerminationReport.Outcome.FAILED);
+            } catch (TimeoutException exception) {
+                outcomes.put(name, TerminationReport.Outcome.TIMED_OUT);
+            } catch (Exception exception) {
+                outcomes.put(name, TerminationReport.Outcome.FAILED);
+            }
+        });
+
+        //Resets providers.
+        mongoProvider = null;
+        redisProvider = null;
+        influxProvider = null;
+        timescaleProvider = null;
+        config = null;
+
+        return outcomes;
+    }
+
     /**
      * Gets config.
      *
@@ -179,6 +179,26 @@ public final class InfluxProvider {
         return this.client.getWriteApiBlocking();
     }
 
+    /**
+     * Closes InfluxDB connection.
+     * Buffered points of the write api are flushed before closing.
+     *
+     * @return If connection is closed without an error or not.
+     */
+    public boolean close() {
+        try {
+            this.writeApi.flush();
+            this.writeApi.close();
+            this.client.close();
+            this.initialized = false;
+            BardenJavaLibrary.getLogger().info("InfluxDB connection closed.");
+            return true;
+        } catch (Exception exception) {
+            BardenJavaLibrary.getLogger().error("Couldn't close InfluxDB!", exception);
+            return false;
+        }
+    }
+
     /**
      * Finds bucket by its name.
      *
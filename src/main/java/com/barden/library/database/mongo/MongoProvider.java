@@ -186,6 +186,23 @@ public final class MongoProvider {
         return clientSettings;
     }
 
+    /**
+     * Closes MongoDB connection.
+     *
+     * @return If connection is closed without an error or not.
+     */
+    public boolean close() {
+        try {
+            this.client.close();
+            this.initialized = false;
+            BardenJavaLibrary.getLogger().info("MongoDB connection closed.");
+            return true;
+        } catch (Exception exception) {
+            BardenJavaLibrary.getLogger().error("Couldn't close MongoDB!", exception);
+            return false;
+        }
+    }
+
     /**
      * Creates index for collection.
      *
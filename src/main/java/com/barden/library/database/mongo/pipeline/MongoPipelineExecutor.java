@@ -194,7 +194,7 @@ public final class MongoPipelineExecutor {
      */
     public void execute(boolean async) {
         if (async)
-            SchedulerProvider.schedule(task -> this.execute());
+            SchedulerProvider.run(this::execute);
         else
             this.execute();
     }
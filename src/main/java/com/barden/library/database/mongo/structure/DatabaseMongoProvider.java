@@ -3,19 +3,21 @@ package com.barden.library.database.mongo.structure;
 import com.barden.library.BardenJavaLibrary;
 import com.barden.library.database.DatabaseProvider;
 import com.barden.library.scheduler.SchedulerProvider;
+import com.barden.library.scheduler.task.Task;
 import com.mongodb.client.MongoCollection;
 import com.mongodb.client.model.BulkWriteOptions;
 import com.mongodb.client.model.IndexOptions;
 import com.mongodb.client.model.UpdateOneModel;
+import com.mongodb.client.model.UpdateOptions;
 import com.mongodb.client.model.WriteModel;
 import org.bson.BsonDocument;
 import org.bson.conversions.Bson;
 import org.jetbrains.annotations.NotNull;
 
-import java.util.ArrayList;
-import java.util.List;
-import java.util.Objects;
-import java.util.Set;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
 
 /**
  * Database mongo provider class to provider database methods.
@@ -23,8 +25,37 @@ import java.util.Set;
 @SuppressWarnings("unused")
 public abstract class DatabaseMongoProvider {
 
+    /*
+    STATICS
+     */
+
+    private static final Set<DatabaseMongoProvider> writeBehinds = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Stops write behind of all providers and flushes their remaining dirty structures.
+     * Called on termination, before the scheduler is drained.
+     *
+     * @return {@link Map} of provider name and dirty structure count, for providers whose flush failed.
+     */
+    @NotNull
+    public static Map<String, Integer> stopAllWriteBehind() {
+        Map<String, Integer> unflushed = new LinkedHashMap<>();
+        for (DatabaseMongoProvider provider : List.copyOf(writeBehinds)) {
+            if (!provider.stopWriteBehind())
+                unflushed.put(provider.databaseId + "." + provider.collectionId, provider.getDirty());
+        }
+        return unflushed;
+    }
+
+
+    /*
+    ROOT
+     */
+
     private final String databaseId;
     private final String collectionId;
+    private final Set<DatabaseStructure<?, ?>> dirty = ConcurrentHashMap.newKeySet();
+    private Task flusher;
 
     /**
      * Creates new database mongo provider.
@@ -111,12 +142,117 @@ public abstract class DatabaseMongoProvider {
         }
     }
 
+    /**
+     * Gets dirty structure count, waiting for the write behind flush.
+     *
+     * @return Dirty structure count.
+     */
+    public final int getDirty() {
+        return this.dirty.size();
+    }
+
+    /**
+     * Starts write behind flusher.
+     * Structures marked dirty are saved periodically with a single unordered bulk write
+     * which contains only their changed fields.
+     *
+     * @param interval Flush interval.
+     * @param unit     {@link TimeUnit}
+     * @throws NullPointerException If {@param unit} is null.
+     */
+    public final synchronized void writeBehind(long interval, @NotNull TimeUnit unit) {
+        //Object null checks.
+        Objects.requireNonNull(unit, "time unit cannot be null!");
+
+        //If flusher is already started, restarts it with the new interval.
+        if (this.flusher != null)
+            this.flusher.cancel();
+        this.flusher = SchedulerProvider.create()
+                .name("write behind(" + this.databaseId + "." + this.collectionId + ")")
+                .every(interval, unit)
+                .schedule(task -> this.flush());
+        writeBehinds.add(this);
+    }
+
+    /**
+     * Stops write behind flusher and flushes remaining dirty structures.
+     * A flush in progress is not interrupted, it is completed first.
+     *
+     * @return if remaining structures are flushed {@param true}, otherwise {@param false}.
+     */
+    public final synchronized boolean stopWriteBehind() {
+        writeBehinds.remove(this);
+        if (this.flusher != null) {
+            this.flusher.cancel(false);
+            this.flusher = null;
+        }
+        return this.flush();
+    }
+
+    /**
+     * Saves changed fields of dirty structures to the database with a single unordered bulk write.
+     * Fields of a failed flush stay dirty and are retried with the next one. -> NOT ASYNC!
+     * <p>
+     * Flush lock of each structure is held from taking its fields until the write is done,
+     * so an eviction flush of the same structure can't be overwritten with older values.
+     *
+     * @return if flush is succeeded or there is nothing to flush {@param true}, otherwise {@param false}.
+     */
+    public final synchronized boolean flush() {
+        //If there is no dirty structure, no need to continue.
+        if (this.dirty.isEmpty())
+            return true;
+
+        //Takes dirty fields of the structures.
+        Map<DatabaseStructure<?, ?>, Long> masks = new LinkedHashMap<>();
+        List<ReentrantLock> locks = new ArrayList<>();
+        List<WriteModel<BsonDocument>> writes = new ArrayList<>();
+        try {
+            for (Iterator<DatabaseStructure<?, ?>> iterator = this.dirty.iterator(); iterator.hasNext(); ) {
+                DatabaseStructure<?, ?> structure = iterator.next();
+                iterator.remove();
+
+                ReentrantLock lock = structure.getFlushLock();
+                lock.lock();
+                locks.add(lock);
+
+                long mask = structure.takeDirty();
+                if (mask == 0)
+                    continue;
+                masks.put(structure, mask);
+                writes.add(new UpdateOneModel<>(structure.toQueryBson(), structure.toSaveBson(mask), new UpdateOptions().upsert(true)));
+            }
+            if (writes.isEmpty())
+                return true;
+
+            //Pass write modules to collection. Unordered, so a failed write doesn't stop the others.
+            this.getCollection().bulkWrite(writes, new BulkWriteOptions().ordered(false).bypassDocumentValidation(true));
+            return true;
+        } catch (Exception exception) {
+            //Marks fields dirty again, next flush retries them.
+            masks.forEach(DatabaseStructure::markDirty);
+            BardenJavaLibrary.getLogger().error("Couldn't flush database(" + this.databaseId + ") structures to the database!", exception);
+            return false;
+        } finally {
+            locks.forEach(ReentrantLock::unlock);
+        }
+    }
+
+    /**
+     * Queues dirty structure for the next flush.
+     *
+     * @param structure {@link DatabaseStructure}
+     */
+    final void queue(@NotNull DatabaseStructure<?, ?> structure) {
+        this.dirty.add(structure);
+    }
+
     /**
      * Saves database structures to the database. (ASYNC)
      *
      * @param structures {@link Set} with extends {@link DatabaseObject}
      */
     public final void saveAsync(@NotNull Set<? extends DatabaseObject<?, ?>> structures) {
-        SchedulerProvider.schedule(task -> this.save(structures));
+        SchedulerProvider.run(() -> this.save(structures));
     }
 }
@@ -12,6 +12,8 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
 import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
 
 /**
  * Database structure class to handle database methods.
@@ -25,6 +27,8 @@ public abstract class DatabaseStructure<P, F extends DatabaseField<P>> {
     protected final P parent;
     protected final Class<F> field;
     private final DatabaseMongoProvider mongoProvider;
+    private final AtomicLong dirty = new AtomicLong();
+    private final ReentrantLock flushLock = new ReentrantLock();
 
     /**
      * Creates a database structure with given parent and field.
@@ -108,11 +112,12 @@ public abstract class DatabaseStructure<P, F extends DatabaseField<P>> {
 
     /**
      * Saves database structure to the database async.
+     * Async calls of the same structure run in order, one by one.
      *
      * @param fields {@link F} fields to save.
      */
     public void saveAsync(@NotNull F... fields) {
-        SchedulerProvider.schedule(task -> this.save(fields));
+        SchedulerProvider.serial(this, () -> this.save(fields));
     }
 
     /**
@@ -142,9 +147,141 @@ public abstract class DatabaseStructure<P, F extends DatabaseField<P>> {
 
     /**
      * Deletes database structure from the database. (ASYNC)
+     * Async calls of the same structure run in order, one by one.
      */
     public final void deleteAsync() {
-        SchedulerProvider.schedule(task -> this.delete());
+        SchedulerProvider.serial(this, this::delete);
+    }
+
+
+    /*
+    WRITE BEHIND
+     */
+
+    /**
+     * Marks fields as dirty.
+     * Dirty fields are saved by the write behind flusher of the mongo provider, only changed fields are written.
+     *
+     * @param fields {@link F} changed fields.
+     * @throws NullPointerException If {@param fields} is null.
+     */
+    @SafeVarargs
+    public final void markDirty(@NotNull F... fields) {
+        //Object null checks.
+        Objects.requireNonNull(fields, "Tried to mark database(" + this.mongoProvider.getDatabaseId() + ") structure(" + this.parent + ") dirty without fields.");
+
+        long mask = 0;
+        for (F field : fields)
+            mask |= this.toMask(field);
+        this.markDirty(mask);
+    }
+
+    /**
+     * Marks all fields as dirty.
+     */
+    public final void markDirty() {
+        this.markDirty(this.field.getEnumConstants());
+    }
+
+    /**
+     * Checks if structure has dirty fields.
+     *
+     * @return if structure has dirty fields {@param true}, otherwise {@param false}.
+     */
+    public final boolean isDirty() {
+        return this.dirty.get() != 0;
+    }
+
+    /**
+     * Gets dirty fields.
+     *
+     * @return {@link List} of {@link F} dirty fields.
+     */
+    @NotNull
+    public final List<F> getDirty() {
+        return this.toFields(this.dirty.get());
+    }
+
+    /**
+     * Saves dirty fields to the database right away.
+     * Should be called before structure is dropped from memory, such as on cache eviction.
+     * Runs under the flush lock, so it is ordered with the write behind flush of the provider.
+     */
+    public final void flush() {
+        this.flushLock.lock();
+        try {
+            long mask = this.dirty.getAndSet(0);
+            if (mask == 0)
+                return;
+
+            try {
+                this.save(this.toFields(mask));
+            } catch (Exception exception) {
+                //Keeps fields dirty, so the next flush retries them.
+                this.markDirty(mask);
+                throw exception;
+            }
+        } finally {
+            this.flushLock.unlock();
+        }
+    }
+
+    /**
+     * Marks fields of the mask as dirty, queues structure on the first dirty field.
+     *
+     * @param mask Field mask.
+     */
+    final void markDirty(long mask) {
+        if (mask != 0 && this.dirty.getAndAccumulate(mask, (previous, next) -> previous | next) == 0)
+            this.mongoProvider.queue(this);
+    }
+
+    /**
+     * Gets flush lock.
+     * Held while dirty fields are taken and written, by both structure and provider flushes.
+     *
+     * @return {@link ReentrantLock}
+     */
+    @NotNull
+    final ReentrantLock getFlushLock() {
+        return this.flushLock;
+    }
+
+    /**
+     * Takes dirty fields, structure becomes clean.
+     *
+     * @return Field mask.
+     */
+    final long takeDirty() {
+        return this.dirty.getAndSet(0);
+    }
+
+    /**
+     * Gets mask bit of the field.
+     * Enums with more than 64 fields share the last bit, which stands for all fields.
+     *
+     * @param field {@link F} field.
+     * @return Field mask.
+     */
+    private long toMask(@NotNull F field) {
+        int ordinal = ((Enum<?>) field).ordinal();
+        return ordinal < Long.SIZE ? 1L << ordinal : -1L;
+    }
+
+    /**
+     * Gets fields of the mask.
+     *
+     * @param mask Field mask.
+     * @return {@link List} of {@link F} fields.
+     */
+    @NotNull
+    private List<F> toFields(long mask) {
+        F[] constants = this.field.getEnumConstants();
+        List<F> fields = new ArrayList<>();
+        for (int i = 0; i < constants.length; i++)
+            if (mask == -1L || (i < Long.SIZE && (mask & (1L << i)) != 0))
+                fields.add(constants[i]);
+        return fields;
     }
 
 
@@ -193,6 +330,17 @@ public abstract class DatabaseStructure<P, F extends DatabaseField<P>> {
         return Updates.combine(list);
     }
 
+    /**
+     * Gets save bson with fields of the mask.
+     *
+     * @param mask Field mask.
+     * @return {@link Bson}
+     */
+    @NotNull
+    final Bson toSaveBson(long mask) {
+        return this.toSaveBson((F[]) this.toFields(mask).toArray(DatabaseField[]::new));
+    }
+
     /**
      * Gets bson value from field.
      *
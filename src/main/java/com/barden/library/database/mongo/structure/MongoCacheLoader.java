@@ -0,0 +1,98 @@
+package com.barden.library.database.mongo.structure;
+
+import com.barden.library.cache.CacheLoader;
+import com.mongodb.client.model.Filters;
+import org.bson.BsonDocument;
+import org.bson.BsonValue;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.*;
+import java.util.function.Function;
+
+/**
+ * Mongo cache loader class to load database structures into loading caches.
+ * Bulk loads fetch all keys with a single "$in" query.
+ *
+ * @param <K> Key type.
+ * @param <V> Value type.
+ */
+public final class MongoCacheLoader<K, V> implements CacheLoader<K, V> {
+
+    /**
+     * Maximum key count of a single "$in" query.
+     */
+    public static final int BATCH_SIZE = 1000;
+
+    private final DatabaseMongoProvider mongoProvider;
+    private final String path;
+    private final Function<K, BsonValue> keyMapper;
+    private final Function<BsonDocument, V> valueMapper;
+
+    /**
+     * Creates mongo cache loader.
+     *
+     * @param mongoProvider {@link DatabaseMongoProvider} to query.
+     * @param path          {@link String} path of the query field.
+     * @param keyMapper     {@link Function} to convert key to the query field value.
+     * @param valueMapper   {@link Function} to convert document to value.
+     * @throws NullPointerException If any of parameters is null.
+     */
+    public MongoCacheLoader(@NotNull DatabaseMongoProvider mongoProvider, @NotNull String path, @NotNull Function<K, BsonValue> keyMapper, @NotNull Function<BsonDocument, V> valueMapper) {
+        this.mongoProvider = Objects.requireNonNull(mongoProvider);
+        this.path = Objects.requireNonNull(path);
+        this.keyMapper = Objects.requireNonNull(keyMapper);
+        this.valueMapper = Objects.requireNonNull(valueMapper);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Nullable
+    @Override
+    public V load(@NotNull K key) {
+        BsonDocument document = this.mongoProvider.getCollection().find(Filters.eq(this.path, this.keyMapper.apply(key))).first();
+        return document == null ? null : this.valueMapper.apply(document);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @NotNull
+    @Override
+    public Map<K, V> loadAll(@NotNull Collection<? extends K> keys) {
+        //Maps query values back to keys.
+        Map<BsonValue, K> queries = new LinkedHashMap<>();
+        for (K key : keys)
+            queries.put(this.keyMapper.apply(key), key);
+
+        //Queries keys batch by batch.
+        Map<K, V> values = new HashMap<>();
+        List<BsonValue> batch = new ArrayList<>(Math.min(queries.size(), BATCH_SIZE));
+        for (BsonValue query : queries.keySet()) {
+            batch.add(query);
+            if (batch.size() == BATCH_SIZE) {
+                this.loadBatch(batch, queries, values);
+                batch.clear();
+            }
+        }
+        if (!batch.isEmpty())
+            this.loadBatch(batch, queries, values);
+        return values;
+    }
+
+    /**
+     * Loads a batch of keys.
+     *
+     * @param batch   Query values of the batch.
+     * @param queries Query value and key map.
+     * @param values  Loaded key and value map.
+     */
+    private void loadBatch(@NotNull List<BsonValue> batch, @NotNull Map<BsonValue, K> queries, @NotNull Map<K, V> values) {
+        for (BsonDocument document : this.mongoProvider.getCollection().find(Filters.in(this.path, batch))) {
+            K key = queries.get(DatabaseField.getValueByPath(document, this.path, BsonValue.class));
+            if (key != null)
+                values.put(key, this.valueMapper.apply(document));
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package com.barden.library.database.redis;
+
+import com.barden.library.BardenJavaLibrary;
+import com.barden.library.database.DatabaseProvider;
+import redis.clients.jedis.Jedis;
+import redis.clients.jedis.params.SetParams;
+
+import javax.annotation.Nonnull;
+import java.util.List;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Redis lease class.
+ * Lease is a key with an expiry owned by a single holder at a time. It is acquired
+ * with {@code SET NX PX} and renewed or released only by its holder.
+ * Holder considers the lease lost slightly before it expires on the server, so two
+ * holders never believe they own it at the same time under normal clock drift.
+ */
+public final class RedisLease {
+
+    private static final RedisScript RENEW = new RedisScript(
+            "if redis.call('get', KEYS[1]) == ARGV[1] then return redis.call('pexpire', KEYS[1], ARGV[2]) else return 0 end");
+    private static final RedisScript RELEASE = new RedisScript(
+            "if redis.call('get', KEYS[1]) == ARGV[1] then return redis.call('del', KEYS[1]) else return 0 end");
+
+    private final String key;
+    private final String token = UUID.randomUUID().toString();
+    private final long ttl;
+
+    private volatile boolean held;
+    private volatile long validUntil;
+
+    /**
+     * Creates redis lease object.
+     *
+     * @param key  Lease key.
+     * @param ttl  Lease time to live.
+     * @param unit Time unit.
+     */
+    public RedisLease(@Nonnull String key, long ttl, @Nonnull TimeUnit unit) {
+        this.key = Objects.requireNonNull(key, "key cannot be null!");
+        this.ttl = Objects.requireNonNull(unit, "time unit cannot be null!").toMillis(ttl);
+        if (this.ttl <= 0)
+            throw new IllegalArgumentException("ttl must be positive!");
+    }
+
+    /**
+     * Gets key.
+     *
+     * @return Lease key.
+     */
+    @Nonnull
+    public String getKey() {
+        return this.key;
+    }
+
+    /**
+     * Gets holder token.
+     *
+     * @return Holder token.
+     */
+    @Nonnull
+    public String getToken() {
+        return this.token;
+    }
+
+    /**
+     * Gets time to live.
+     *
+     * @return Time to live in milliseconds.
+     */
+    public long getTtl() {
+        return this.ttl;
+    }
+
+    /**
+     * Gets if lease is held or not.
+     *
+     * @return If lease is held or not.
+     */
+    public boolean isHeld() {
+        return this.held && System.nanoTime() - this.validUntil < 0;
+    }
+
+    /**
+     * Acquires the lease, or renews it if it is already held.
+     *
+     * @return If lease is held after the call or not.
+     */
+    public boolean acquire() {
+        //Lease validity is counted from before the request, since the server starts counting once it receives it.
+        long start = System.nanoTime();
+        try (Jedis jedis = DatabaseProvider.redis().getClient().getResource()) {
+            boolean held = "OK".equals(jedis.set(this.key, this.token, SetParams.setParams().nx().px(this.ttl)))
+                    || Long.valueOf(1).equals(RENEW.eval(jedis, List.of(this.key), List.of(this.token, String.valueOf(this.ttl))));
+            this.validUntil = start + TimeUnit.MILLISECONDS.toNanos(this.ttl * 9 / 10);
+            this.held = held;
+        } catch (Exception exception) {
+            BardenJavaLibrary.getLogger().error("Couldn't acquire redis lease(" + this.key + ")!", exception);
+            //Keeps local validity, lease is still ours until it runs out.
+        }
+        return this.isHeld();
+    }
+
+    /**
+     * Releases the lease if it is held.
+     */
+    public void release() {
+        this.held = false;
+        try (Jedis jedis = DatabaseProvider.redis().getClient().getResource()) {
+            RELEASE.eval(jedis, List.of(this.key), List.of(this.token));
+        } catch (Exception exception) {
+            BardenJavaLibrary.getLogger().error("Couldn't release redis lease(" + this.key + ")!", exception);
+        }
+    }
+}
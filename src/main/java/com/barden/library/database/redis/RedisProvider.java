@@ -278,18 +278,26 @@ public final class RedisProvider {
 
     /**
      * Closes Redis connection.
+     *
+     * @return If connection is closed without an error or not.
      */
-    public void close() {
+    public boolean close() {
         if (this.client == null || this.client.isClosed())
-            return;
+            return true;
 
         try {
+            //Unsubscribes from all channels, so pub/sub thread returns.
+            if (this.subscribe != null && this.subscribe.isSubscribed())
+                this.subscribe.unsubscribe();
             if (this.channelThread != null)
                 this.channelThread.interrupt();
             this.client.destroy();
+            this.initialized = false;
             BardenJavaLibrary.getLogger().info("Redis connection closed.");
+            return true;
         } catch (Exception exception) {
             BardenJavaLibrary.getLogger().error("Couldn't close Redis!", exception);
+            return false;
         }
     }
 }
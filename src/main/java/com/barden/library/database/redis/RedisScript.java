@@ -0,0 +1,100 @@
+package com.barden.library.database.redis;
+
+import redis.clients.jedis.Jedis;
+import redis.clients.jedis.exceptions.JedisNoScriptException;
+
+import javax.annotation.Nonnull;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Redis script class.
+ * Lua script which is called by its SHA1 digest, so the script body is only
+ * sent to the server when the server doesn't have it cached yet.
+ */
+public final class RedisScript {
+
+    private final String script;
+    private final String sha1;
+
+    /**
+     * Creates redis script object.
+     *
+     * @param script Lua script.
+     */
+    public RedisScript(@Nonnull String script) {
+        this.script = Objects.requireNonNull(script, "script cannot be null!");
+        try {
+            this.sha1 = HexFormat.of().formatHex(MessageDigest.getInstance("SHA-1").digest(script.getBytes(StandardCharsets.UTF_8)));
+        } catch (Exception exception) {
+            throw new IllegalStateException("Couldn't digest redis script!", exception);
+        }
+    }
+
+    /**
+     * Gets script.
+     *
+     * @return Lua script.
+     */
+    @Nonnull
+    public String getScript() {
+        return this.script;
+    }
+
+    /**
+     * Gets SHA1 digest of the script.
+     *
+     * @return SHA1 digest.
+     */
+    @Nonnull
+    public String getSha1() {
+        return this.sha1;
+    }
+
+    /**
+     * Evaluates script.
+     *
+     * @param jedis Jedis resource.
+     * @param keys  Keys.
+     * @param args  Arguments.
+     * @return Script result.
+     */
+    public Object eval(@Nonnull Jedis jedis, @Nonnull List<String> keys, @Nonnull List<String> args) {
+        //Objects null check.
+        Objects.requireNonNull(jedis, "jedis cannot be null!");
+        Objects.requireNonNull(keys, "keys cannot be null!");
+        Objects.requireNonNull(args, "args cannot be null!");
+
+        //Tries cached script first, if server doesn't have it, sends script body which also caches it.
+        try {
+            return jedis.evalsha(this.sha1, keys, args);
+        } catch (JedisNoScriptException exception) {
+            return jedis.eval(this.script, keys, args);
+        }
+    }
+
+    /**
+     * Evaluates script with binary keys and arguments.
+     *
+     * @param jedis Jedis resource.
+     * @param keys  Keys.
+     * @param args  Arguments.
+     * @return Script result.
+     */
+    public Object evalBinary(@Nonnull Jedis jedis, @Nonnull List<byte[]> keys, @Nonnull List<byte[]> args) {
+        //Objects null check.
+        Objects.requireNonNull(jedis, "jedis cannot be null!");
+        Objects.requireNonNull(keys, "keys cannot be null!");
+        Objects.requireNonNull(args, "args cannot be null!");
+
+        //Tries cached script first, if server doesn't have it, sends script body which also caches it.
+        try {
+            return jedis.evalsha(this.sha1.getBytes(StandardCharsets.UTF_8), keys, args);
+        } catch (JedisNoScriptException exception) {
+            return jedis.eval(this.script.getBytes(StandardCharsets.UTF_8), keys, args);
+        }
+    }
+}
@@ -123,6 +123,27 @@ public final class TimescaleProvider {
         return this.connection;
     }
 
+    /**
+     * Closes TimescaleDB connection.
+     *
+     * @return If connection is closed without an error or not.
+     */
+    public boolean close() {
+        //If there is no connection, no need to continue.
+        if (this.connection == null)
+            return true;
+
+        try {
+            this.connection.close();
+            this.initialized = false;
+            BardenJavaLibrary.getLogger().info("TimescaleDB connection closed.");
+            return true;
+        } catch (Exception exception) {
+            BardenJavaLibrary.getLogger().error("Couldn't close TimescaleDB!", exception);
+            return false;
+        }
+    }
+
     /**
      * Creates a statement.
      *
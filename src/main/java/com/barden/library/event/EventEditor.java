@@ -3,6 +3,7 @@ package com.barden.library.event;
 import com.barden.library.BardenJavaLibrary;
 import com.barden.library.metadata.Metadata;
 import com.barden.library.metadata.MetadataEntity;
+import com.barden.library.scheduler.Scheduler;
 import com.barden.library.scheduler.SchedulerProvider;
 import com.barden.library.scheduler.task.Task;
 
@@ -86,7 +87,7 @@ public final class EventEditor<T extends Event> extends MetadataEntity implement
         this.order = Objects.requireNonNull(order, "order cannot be null!");
         //If there are multiple events, creates name based metadata.
         if (this.names.size() > 1)
-            this.names.forEach(name -> this.metadata.set(name, new Metadata()));
+            this.names.forEach(name -> this.metadata().set(name, new Metadata()));
     }
 
     /**
@@ -101,7 +102,7 @@ public final class EventEditor<T extends Event> extends MetadataEntity implement
         if (!this.names.contains(name) || this.names.size() > 1)
             throw new NullPointerException("name doesn't exist!");
         //Returns metadata by event name.
-        return this.metadata.getNonNull(Objects.requireNonNull(name, "name cannot be null!"));
+        return this.metadata().getNonNull(Objects.requireNonNull(name, "name cannot be null!"));
     }
 
     /**
@@ -167,7 +168,7 @@ public final class EventEditor<T extends Event> extends MetadataEntity implement
 
         //Expire handler.
         if (this.expireUnit != null)
-            this.expireTask = SchedulerProvider.create().after(this.expire, this.expireUnit).schedule(task -> {
+            this.expireTask = SchedulerProvider.create().after(this.expire, this.expireUnit).slack(Scheduler.DEFAULT_SLACK, TimeUnit.MILLISECONDS).schedule(task -> {
                 //If event editor is not valid, no need to continue.
                 if (!this.isRegistered() || this.isUnregistered())
                     return;
@@ -102,7 +102,7 @@ public final class EventRepository {
             _executors.forEach(executor -> {
                 //Handles event thread.
                 if (event.isAsynchronous())
-                    SchedulerProvider.schedule(task -> executor.onExecute(event));
+                    SchedulerProvider.run(() -> executor.onExecute(event));
                 else
                     executor.onExecute(event);
             });
@@ -1,21 +1,64 @@
 package com.barden.library.metadata;
 
-import com.barden.library.scheduler.SchedulerProvider;
-import com.barden.library.scheduler.task.Task;
+import com.barden.library.BardenJavaLibrary;
+import com.barden.library.scheduler.timer.ExpiryWheel;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.math.BigDecimal;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.TimeUnit;
+import java.util.function.BiFunction;
 import java.util.function.Consumer;
 
 /**
  * Metadata object.
+ * Safe to use from multiple threads, reads are lock-free. Values are keyed by any object
+ * or by typed {@link MetadataKey} handles. Expiry of timed values is kept apart from values.
+ * <p>
+ * Timed values keep only a deadline, there is no task per key. Reads check the deadline,
+ * so an expired value is never returned. Values nobody reads are reclaimed by a background
+ * sweep on the shared expiry wheel, which also fires expire handlers in batches.
+ * <p>
+ * Metadata can be {@link #track(int) tracked}, then every set, remove and expire gets a version
+ * and the last changes are kept, so replicas can catch up with {@link #diff(long, long)} instead
+ * of a full {@link #snapshot()}. Writes of a tracked metadata are serialized.
  */
 @SuppressWarnings("unchecked")
 public final class Metadata {
-    private final HashMap<Object, Object> metadata = new HashMap<>();
+
+    private static final VarHandle SWEEP;
+    private static final VarHandle EXPIRIES;
+    private static final VarHandle EXPIRED;
+    private static final VarHandle LOG;
+
+    static {
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.lookup();
+            SWEEP = lookup.findVarHandle(Metadata.class, "sweep", Sweep.class);
+            EXPIRIES = lookup.findVarHandle(Metadata.class, "expiries", Map.class);
+            EXPIRED = lookup.findVarHandle(Metadata.class, "expired", Queue.class);
+            LOG = lookup.findVarHandle(Metadata.class, "log", MetadataLog.class);
+        } catch (ReflectiveOperationException exception) {
+            throw new ExceptionInInitializerError(exception);
+        }
+    }
+
+    //Expiry structures are created with the first timed value, most metadata never need them.
+    private final MetadataStorage metadata = new MetadataStorage();
+    private volatile Map<Object, Expiry> expiries;
+    private volatile Queue<Consumer<Metadata>> expired;
+    private volatile Sweep sweep;
+    private volatile MetadataLog log;
 
     /**
      * Gets if metadata registered or not.
@@ -24,7 +67,7 @@ public final class Metadata {
      * @return If metadata registered or not.
      */
     public boolean has(@Nonnull Object key) {
-        return this.metadata.get(Objects.requireNonNull(key, "key cannot be null!")) != null;
+        return this.read(Objects.requireNonNull(key, "key cannot be null!")) != null;
     }
 
     /**
@@ -50,7 +93,7 @@ public final class Metadata {
     @Nullable
     public <T> T get(@Nonnull Object key, @Nonnull Class<T> valueClass) {
         Objects.requireNonNull(valueClass, "value class cannot be null!");
-        return (T) this.metadata.get(Objects.requireNonNull(key, "key cannot be null!"));
+        return (T) this.value(Objects.requireNonNull(key, "key cannot be null!"));
     }
 
     /**
@@ -76,7 +119,7 @@ public final class Metadata {
     @Nonnull
     public <T> T getNonNull(@Nonnull Object key, @Nonnull Class<T> valueClass) {
         Objects.requireNonNull(valueClass, "value class cannot be null!");
-        return (T) this.metadata.get(Objects.requireNonNull(key, "key cannot be null!"));
+        return (T) this.value(Objects.requireNonNull(key, "key cannot be null!"));
     }
 
     /**
@@ -89,8 +132,9 @@ public final class Metadata {
      */
     @Nonnull
     public <T> T get(@Nonnull Object key, T defaultValue) {
-        return (T) this.metadata.getOrDefault(Objects.requireNonNull(key, "key cannot be null!"),
-                Objects.requireNonNull(defaultValue, "default value cannot be null!"));
+        Objects.requireNonNull(defaultValue, "default value cannot be null!");
+        Object value = this.value(Objects.requireNonNull(key, "key cannot be null!"));
+        return value == null ? defaultValue : (T) value;
     }
 
     /**
@@ -106,11 +150,12 @@ public final class Metadata {
         Objects.requireNonNull(key, "key cannot be null!");
         Objects.requireNonNull(value, "value cannot be null!");
 
-        //Checks expire.
-        this.checkExpire(key);
-
-        //Sets metadata.
-        this.metadata.put(key, value);
+        //Sets metadata and drops its deadline at once, so a running sweep can't remove new value.
+        this.compute(key, (_key, _value) -> {
+            this.dropExpiry(_key);
+            this.record(MetadataChange.Type.SET, _key, value);
+            return value;
+        });
         return this;
     }
 
@@ -145,17 +190,16 @@ public final class Metadata {
         Objects.requireNonNull(value, "value cannot be null!");
         Objects.requireNonNull(unit, "unit cannot be null!");
 
-        //Checks expire.
-        this.checkExpire(key);
-
-        //Sets metadata.
-        this.metadata.put(key, value);
-        this.metadata.put(key + ":expire", SchedulerProvider.create().after(duration, unit).schedule(task -> {
-            this.metadata.remove(key);
-            this.metadata.remove(key + ":expire");
-            if (expireHandler != null)
-                expireHandler.accept(this);
-        }));
+        //Sets metadata with its deadline.
+        long deadline = System.nanoTime() + unit.toNanos(duration);
+        this.compute(key, (_key, _value) -> {
+            this.expiries().put(_key, new Expiry(deadline, expireHandler));
+            this.record(MetadataChange.Type.SET, _key, value);
+            return value;
+        });
+
+        //Makes sure a sweep comes by the deadline.
+        this.scheduleSweep(deadline);
         return this;
     }
 
@@ -167,15 +211,7 @@ public final class Metadata {
      */
     @Nonnull
     public Metadata add(@Nonnull Object key) {
-        //Objects null check.
-        Objects.requireNonNull(key, "key cannot be null!");
-
-        //Checks expire.
-        this.checkExpire(key);
-
-        //Adds metadata.
-        this.metadata.put(key, 0);
-        return this;
+        return this.set(key, 0);
     }
 
     /**
@@ -215,9 +251,433 @@ public final class Metadata {
     public Metadata remove(@Nonnull Object key) {
         //Objects null check.
         Objects.requireNonNull(key, "key cannot be null!");
-        //Checks expire.
-        if (!this.checkExpire(key))
-            this.metadata.remove(key);
+
+        //Removes metadata and its deadline.
+        this.compute(key, (_key, _value) -> {
+            this.dropExpiry(_key);
+            if (_value != null)
+                this.record(MetadataChange.Type.REMOVE, _key, null);
+            return null;
+        });
+        return this;
+    }
+
+
+    /*
+    COUNTERS
+     */
+
+    /**
+     * Gets int value of the metadata.
+     *
+     * @param key Key.
+     * @return Int value. (0 if it is not registered)
+     */
+    public int getInt(@Nonnull Object key) {
+        Object value = this.read(Objects.requireNonNull(key, "key cannot be null!"));
+        return value instanceof Number number ? number.intValue() : 0;
+    }
+
+    /**
+     * Gets long value of the metadata.
+     *
+     * @param key Key.
+     * @return Long value. (0 if it is not registered)
+     */
+    public long getLong(@Nonnull Object key) {
+        Object value = this.read(Objects.requireNonNull(key, "key cannot be null!"));
+        return value instanceof Number number ? number.longValue() : 0;
+    }
+
+    /**
+     * Gets double value of the metadata.
+     *
+     * @param key Key.
+     * @return Double value. (0 if it is not registered)
+     */
+    public double getDouble(@Nonnull Object key) {
+        Object value = this.read(Objects.requireNonNull(key, "key cannot be null!"));
+        return value instanceof Number number ? number.doubleValue() : 0;
+    }
+
+    /**
+     * Increments int counter of the metadata atomically.
+     *
+     * @param key Key.
+     * @return Incremented value.
+     */
+    public int increment(@Nonnull Object key) {
+        return this.addInt(key, 1);
+    }
+
+    /**
+     * Decrements int counter of the metadata atomically.
+     *
+     * @param key Key.
+     * @return Decremented value.
+     */
+    public int decrement(@Nonnull Object key) {
+        return this.addInt(key, -1);
+    }
+
+    /**
+     * Adds to int counter of the metadata atomically.
+     * Counter starts from the present number, or from 0. Expire of the key is kept.
+     *
+     * @param key   Key.
+     * @param delta Delta.
+     * @return Updated value.
+     * @throws IllegalStateException If metadata is not a number, is a counter of another type or doesn't fit in the counter.
+     */
+    public int addInt(@Nonnull Object key, int delta) {
+        MetadataLog log = this.log;
+        if (log == null)
+            return this.slot(key, MetadataSlot.IntSlot.class).add(delta);
+
+        synchronized (log) {
+            int value = this.slot(key, MetadataSlot.IntSlot.class).add(delta);
+            log.record(MetadataChange.Type.SET, key, value);
+            return value;
+        }
+    }
+
+    /**
+     * Adds to long counter of the metadata atomically.
+     * Counter starts from the present number, or from 0. Expire of the key is kept.
+     *
+     * @param key   Key.
+     * @param delta Delta.
+     * @return Updated value.
+     * @throws IllegalStateException If metadata is not a number, is a counter of another type or doesn't fit in the counter.
+     */
+    public long addLong(@Nonnull Object key, long delta) {
+        MetadataLog log = this.log;
+        if (log == null)
+            return this.slot(key, MetadataSlot.LongSlot.class).add(delta);
+
+        synchronized (log) {
+            long value = this.slot(key, MetadataSlot.LongSlot.class).add(delta);
+            log.record(MetadataChange.Type.SET, key, value);
+            return value;
+        }
+    }
+
+    /**
+     * Adds to double counter of the metadata atomically.
+     * Counter starts from the present number, or from 0. Expire of the key is kept.
+     *
+     * @param key   Key.
+     * @param delta Delta.
+     * @return Updated value.
+     * @throws IllegalStateException If metadata is not a number, is a counter of another type or doesn't fit in the counter.
+     */
+    public double addDouble(@Nonnull Object key, double delta) {
+        MetadataLog log = this.log;
+        if (log == null)
+            return this.slot(key, MetadataSlot.DoubleSlot.class).add(delta);
+
+        synchronized (log) {
+            double value = this.slot(key, MetadataSlot.DoubleSlot.class).add(delta);
+            log.record(MetadataChange.Type.SET, key, value);
+            return value;
+        }
+    }
+
+    /**
+     * Sets int counter of the metadata atomically if it has the expected value.
+     *
+     * @param key      Key.
+     * @param expected Expected value.
+     * @param update   New value.
+     * @return If counter is updated or not.
+     * @throws IllegalStateException If metadata is not a number, is a counter of another type or doesn't fit in the counter.
+     */
+    public boolean compareAndSet(@Nonnull Object key, int expected, int update) {
+        MetadataLog log = this.log;
+        if (log == null)
+            return this.slot(key, MetadataSlot.IntSlot.class).compareAndSet(expected, update);
+
+        synchronized (log) {
+            if (!this.slot(key, MetadataSlot.IntSlot.class).compareAndSet(expected, update))
+                return false;
+            log.record(MetadataChange.Type.SET, key, update);
+            return true;
+        }
+    }
+
+    /**
+     * Sets long counter of the metadata atomically if it has the expected value.
+     *
+     * @param key      Key.
+     * @param expected Expected value.
+     * @param update   New value.
+     * @return If counter is updated or not.
+     * @throws IllegalStateException If metadata is not a number, is a counter of another type or doesn't fit in the counter.
+     */
+    public boolean compareAndSet(@Nonnull Object key, long expected, long update) {
+        MetadataLog log = this.log;
+        if (log == null)
+            return this.slot(key, MetadataSlot.LongSlot.class).compareAndSet(expected, update);
+
+        synchronized (log) {
+            if (!this.slot(key, MetadataSlot.LongSlot.class).compareAndSet(expected, update))
+                return false;
+            log.record(MetadataChange.Type.SET, key, update);
+            return true;
+        }
+    }
+
+    /**
+     * Sets double counter of the metadata atomically if it has the expected value.
+     *
+     * @param key      Key.
+     * @param expected Expected value.
+     * @param update   New value.
+     * @return If counter is updated or not.
+     * @throws IllegalStateException If metadata is not a number, is a counter of another type or doesn't fit in the counter.
+     */
+    public boolean compareAndSet(@Nonnull Object key, double expected, double update) {
+        MetadataLog log = this.log;
+        if (log == null)
+            return this.slot(key, MetadataSlot.DoubleSlot.class).compareAndSet(expected, update);
+
+        synchronized (log) {
+            if (!this.slot(key, MetadataSlot.DoubleSlot.class).compareAndSet(expected, update))
+                return false;
+            log.record(MetadataChange.Type.SET, key, update);
+            return true;
+        }
+    }
+
+
+    /*
+    TYPED
+     */
+
+    /**
+     * Gets if metadata registered or not.
+     *
+     * @param key Metadata key.
+     * @return If metadata registered or not.
+     */
+    public boolean has(@Nonnull MetadataKey<?> key) {
+        return this.has((Object) key);
+    }
+
+    /**
+     * Gets metadata.
+     *
+     * @param <T> Value type.
+     * @param key Metadata key.
+     * @return Value. (Optional)
+     */
+    @Nullable
+    public <T> T get(@Nonnull MetadataKey<T> key) {
+        return (T) this.value(Objects.requireNonNull(key, "key cannot be null!"));
+    }
+
+    /**
+     * Gets metadata nonnull.
+     *
+     * @param <T> Value type.
+     * @param key Metadata key.
+     * @return Value.
+     * @throws IllegalStateException If metadata is not registered.
+     */
+    @Nonnull
+    public <T> T getNonNull(@Nonnull MetadataKey<T> key) {
+        T value = this.get(key);
+        if (value == null)
+            throw new IllegalStateException("metadata(" + key + ") is not registered!");
+        return value;
+    }
+
+    /**
+     * Gets metadata.
+     *
+     * @param <T>          Value type.
+     * @param key          Metadata key.
+     * @param defaultValue Default value.
+     * @return Value.
+     */
+    @Nonnull
+    public <T> T get(@Nonnull MetadataKey<T> key, @Nonnull T defaultValue) {
+        return this.get((Object) key, defaultValue);
+    }
+
+    /**
+     * Sets metadata.
+     *
+     * @param <T>   Value type.
+     * @param key   Metadata key.
+     * @param value Value.
+     * @return Metadata.
+     */
+    @Nonnull
+    public <T> Metadata set(@Nonnull MetadataKey<T> key, @Nonnull T value) {
+        return this.set((Object) key, value);
+    }
+
+    /**
+     * Sets metadata.
+     *
+     * @param <T>      Value type.
+     * @param key      Metadata key.
+     * @param value    Value.
+     * @param unit     Time unit.
+     * @param duration Duration.
+     * @return Metadata.
+     */
+    @Nonnull
+    public <T> Metadata set(@Nonnull MetadataKey<T> key, @Nonnull T value, @Nonnull TimeUnit unit, int duration) {
+        return this.set(key, value, unit, duration, null);
+    }
+
+    /**
+     * Sets metadata.
+     *
+     * @param <T>           Value type.
+     * @param key           Metadata key.
+     * @param value         Value.
+     * @param unit          Time unit.
+     * @param duration      Duration.
+     * @param expireHandler Expire handler. (Optional)
+     * @return Metadata.
+     */
+    @Nonnull
+    public <T> Metadata set(@Nonnull MetadataKey<T> key, @Nonnull T value, @Nonnull TimeUnit unit, int duration, @Nullable Consumer<Metadata> expireHandler) {
+        return this.set((Object) key, value, unit, duration, expireHandler);
+    }
+
+    /**
+     * Removes metadata.
+     *
+     * @param key Metadata key.
+     * @return Metadata.
+     */
+    @Nonnull
+    public Metadata remove(@Nonnull MetadataKey<?> key) {
+        return this.remove((Object) key);
+    }
+
+
+    /*
+    TRACKING
+     */
+
+    /**
+     * Tracks changes of the metadata, keeps the last changes.
+     * Present values are not recorded, take a {@link #snapshot()} for them.
+     *
+     * @param capacity Maximum change count to keep.
+     * @return Metadata.
+     * @throws IllegalArgumentException If capacity is not positive.
+     * @throws IllegalStateException    If metadata is already tracked with another capacity.
+     */
+    @Nonnull
+    public Metadata track(int capacity) {
+        if (capacity <= 0)
+            throw new IllegalArgumentException("capacity must be positive!");
+
+        //If metadata is already tracked, keeps the present log.
+        if (!LOG.compareAndSet(this, null, new MetadataLog(capacity)) && this.log.getCapacity() != capacity)
+            throw new IllegalStateException("metadata is already tracked with capacity " + this.log.getCapacity() + "!");
+        return this;
+    }
+
+    /**
+     * Gets if metadata is tracked or not.
+     *
+     * @return If metadata is tracked or not.
+     */
+    public boolean isTracked() {
+        return this.log != null;
+    }
+
+    /**
+     * Gets version.
+     *
+     * @return Version of the last change. (0 if metadata is not tracked or there is no change)
+     */
+    public long getVersion() {
+        MetadataLog log = this.log;
+        return log == null ? 0 : log.getVersion();
+    }
+
+    /**
+     * Takes an immutable snapshot of the values.
+     * Version of the snapshot is exact, every change after it is in the next diffs.
+     *
+     * @return Metadata snapshot.
+     */
+    @Nonnull
+    public MetadataSnapshot snapshot() {
+        MetadataLog log = this.log;
+        if (log == null)
+            return this.capture(0);
+
+        synchronized (log) {
+            return this.capture(log.getVersion());
+        }
+    }
+
+    /**
+     * Gets changes between two versions, only the last change of each key is kept.
+     * It takes time of the change count between versions, not of the value count.
+     *
+     * @param from Version to take changes after, usually version of the last snapshot or diff.
+     * @param to   Version to take changes until, inclusive.
+     * @return Changes ordered by version. (Null if they are no longer kept, a snapshot is needed)
+     * @throws IllegalStateException    If metadata is not tracked.
+     * @throws IllegalArgumentException If versions are not in range.
+     */
+    @Nullable
+    public List<MetadataChange> diff(long from, long to) {
+        MetadataLog log = this.log;
+        if (log == null)
+            throw new IllegalStateException("metadata is not tracked!");
+        if (from < 0 || from > to || to > log.getVersion())
+            throw new IllegalArgumentException("versions(" + from + ", " + to + ") are not in range!");
+        return log.diff(from, to);
+    }
+
+    /**
+     * Applies changes, usually taken from a diff of another metadata.
+     * Expired values are removed, they are not expired again.
+     *
+     * @param changes Changes.
+     * @return Metadata.
+     */
+    @Nonnull
+    public Metadata apply(@Nonnull List<MetadataChange> changes) {
+        Objects.requireNonNull(changes, "changes cannot be null!");
+        for (MetadataChange change : changes) {
+            if (change.getType() == MetadataChange.Type.SET)
+                this.set(change.getKey(), Objects.requireNonNull(change.getValue()));
+            else
+                this.remove(change.getKey());
+        }
+        return this;
+    }
+
+    /**
+     * Applies snapshot, values which are not in the snapshot are removed.
+     *
+     * @param snapshot Metadata snapshot.
+     * @return Metadata.
+     */
+    @Nonnull
+    public Metadata apply(@Nonnull MetadataSnapshot snapshot) {
+        Map<Object, Object> values = Objects.requireNonNull(snapshot, "snapshot cannot be null!").getValues();
+
+        //Removes values which are not in the snapshot, then sets the rest.
+        List<Object> keys = new ArrayList<>();
+        this.metadata.forEach((key, value) -> keys.add(key));
+        for (Object key : keys) {
+            if (!values.containsKey(key))
+                this.remove(key);
+        }
+        values.forEach(this::set);
         return this;
     }
 
@@ -227,37 +687,335 @@ public final class Metadata {
      */
 
     /**
-     * Checks expire.
+     * Computes value of the key, under the log lock if metadata is tracked.
+     *
+     * @param key      Key.
+     * @param function Function of key and present value. (Returning null removes the value)
+     * @return New value. (Optional)
+     */
+    @Nullable
+    private Object compute(@Nonnull Object key, @Nonnull BiFunction<Object, Object, Object> function) {
+        MetadataLog log = this.log;
+        if (log == null)
+            return this.metadata.compute(key, function);
+
+        synchronized (log) {
+            return this.metadata.compute(key, function);
+        }
+    }
+
+    /**
+     * Records a change if metadata is tracked.
+     * Writes which started before tracking don't hold the log lock, they are not recorded.
+     *
+     * @param type  Change type.
+     * @param key   Key.
+     * @param value New value. (Null if it is not a set)
+     */
+    private void record(@Nonnull MetadataChange.Type type, @Nonnull Object key, @Nullable Object value) {
+        MetadataLog log = this.log;
+        if (log != null && Thread.holdsLock(log))
+            log.record(type, key, value instanceof MetadataSlot slot ? slot.box() : value);
+    }
+
+    /**
+     * Captures values which are not expired.
+     *
+     * @param version Version of the metadata.
+     * @return Metadata snapshot.
+     */
+    @Nonnull
+    private MetadataSnapshot capture(long version) {
+        Map<Object, Expiry> expiries = this.expiries;
+        long now = System.nanoTime();
+        Map<Object, Object> values = new HashMap<>(Math.max(4, this.metadata.size() * 2));
+        this.metadata.forEach((key, value) -> {
+            Expiry expiry = expiries == null ? null : expiries.get(key);
+            if (expiry == null || expiry.deadline - now > 0)
+                values.put(key, value instanceof MetadataSlot slot ? slot.box() : value);
+        });
+        return new MetadataSnapshot(version, values);
+    }
+
+    /**
+     * Gets value of the key, counters are unwrapped to their current value.
      *
      * @param key Key.
+     * @return Value. (Optional)
      */
-    private boolean checkExpire(@Nonnull Object key) {
-        //Objects null check.
-        Objects.requireNonNull(key, "key cannot be null!");
+    @Nullable
+    private Object value(@Nonnull Object key) {
+        Object value = this.read(key);
+        return value instanceof MetadataSlot slot ? slot.box() : value;
+    }
 
-        //If key expire is not set, no need to continue.
-        if (this.get(key + ":expire") == null)
-            return false;
+    /**
+     * Reads value of the key, expires it if its deadline is passed.
+     *
+     * @param key Key.
+     * @return Value. (Optional)
+     */
+    @Nullable
+    private Object read(@Nonnull Object key) {
+        Object value = this.metadata.get(key);
+        Map<Object, Expiry> expiries = this.expiries;
+        if (value == null || expiries == null || expiries.isEmpty())
+            return value;
+
+        //If value has no deadline or it is not passed, no need to continue.
+        Expiry expiry = expiries.get(key);
+        if (expiry == null || expiry.deadline - System.nanoTime() > 0)
+            return value;
+
+        //Expires value, its handler is fired by the sweep.
+        if (this.expire(key, expiry) && expiry.handler != null)
+            this.scheduleSweep(System.nanoTime());
+        return null;
+    }
+
+    /**
+     * Expires value of the key if it still has the given deadline.
+     *
+     * @param key    Key.
+     * @param expiry Expiry.
+     * @return If value is expired or not.
+     */
+    private boolean expire(@Nonnull Object key, @Nonnull Expiry expiry) {
+        boolean[] expired = new boolean[1];
+        this.compute(key, (_key, _value) -> {
+            if (!(expired[0] = this.expiries.remove(_key, expiry)))
+                return _value;
+            this.record(MetadataChange.Type.EXPIRE, _key, null);
+            return null;
+        });
+        if (expired[0] && expiry.handler != null)
+            this.expired().add(expiry.handler);
+        return expired[0];
+    }
+
+    /**
+     * Drops deadline of the key.
+     *
+     * @param key Key.
+     */
+    private void dropExpiry(@Nonnull Object key) {
+        Map<Object, Expiry> expiries = this.expiries;
+        if (expiries != null)
+            expiries.remove(key);
+    }
+
+    /**
+     * Gets deadlines, creates if they don't exist.
+     *
+     * @return Deadlines by keys.
+     */
+    @Nonnull
+    private Map<Object, Expiry> expiries() {
+        Map<Object, Expiry> expiries = this.expiries;
+        if (expiries != null)
+            return expiries;
+        EXPIRIES.compareAndSet(this, null, new ConcurrentHashMap<>());
+        return this.expiries;
+    }
+
+    /**
+     * Gets expired handlers waiting for the sweep, creates if they don't exist.
+     *
+     * @return Expired handlers.
+     */
+    @Nonnull
+    private Queue<Consumer<Metadata>> expired() {
+        Queue<Consumer<Metadata>> expired = this.expired;
+        if (expired != null)
+            return expired;
+        EXPIRED.compareAndSet(this, null, new ConcurrentLinkedQueue<>());
+        return this.expired;
+    }
 
-        //Cancels task.
-        this.getNonNull(key + ":expire", Task.class).cancel();
+    /**
+     * Schedules a sweep by the deadline, unless there is an earlier one.
+     *
+     * @param deadline Deadline.
+     */
+    private void scheduleSweep(long deadline) {
+        while (true) {
+            Sweep current = this.sweep;
+            if (current != null && current.deadline - deadline <= 0)
+                return;
 
-        //Removes metadata.
-        this.metadata.remove(key);
-        this.metadata.remove(key + ":expire");
-        return true;
+            Sweep next = new Sweep(this, deadline);
+            if (SWEEP.compareAndSet(this, current, next)) {
+                BardenJavaLibrary.getScheduler().getExpiryWheel().schedule(next);
+                return;
+            }
+        }
+    }
+
+    /**
+     * Sweeps expired values and fires expire handlers.
+     *
+     * @param sweep Sweep.
+     */
+    private void sweep(@Nonnull Sweep sweep) {
+        //If sweep is replaced by an earlier one, no need to continue.
+        if (!SWEEP.compareAndSet(this, sweep, null))
+            return;
+
+        //Expires values whose deadline is passed, finds the next deadline.
+        long now = System.nanoTime();
+        long next = Long.MAX_VALUE;
+        for (Map.Entry<Object, Expiry> entry : this.expiries().entrySet()) {
+            Expiry expiry = entry.getValue();
+            if (expiry.deadline - now <= 0)
+                this.expire(entry.getKey(), expiry);
+            else if (next == Long.MAX_VALUE || expiry.deadline - next < 0)
+                next = expiry.deadline;
+        }
+        if (next != Long.MAX_VALUE)
+            this.scheduleSweep(next);
+
+        //Fires expire handlers together.
+        Queue<Consumer<Metadata>> expired = this.expired;
+        if (expired == null)
+            return;
+        List<Consumer<Metadata>> handlers = new ArrayList<>();
+        Consumer<Metadata> handler;
+        while ((handler = expired.poll()) != null)
+            handlers.add(handler);
+        for (Consumer<Metadata> _handler : handlers) {
+            try {
+                _handler.accept(this);
+            } catch (Exception exception) {
+                BardenJavaLibrary.getLogger().error("Couldn't handle metadata expire!", exception);
+            }
+        }
+    }
+
+    /**
+     * Gets counter slot of the key, converts present number to a slot once.
+     *
+     * @param key  Key.
+     * @param type Slot class.
+     * @param <S>  Slot type.
+     * @return Slot.
+     * @throws IllegalStateException If metadata is not a number, is a counter of another type or doesn't fit in the counter.
+     */
+    @Nonnull
+    private <S extends MetadataSlot> S slot(@Nonnull Object key, @Nonnull Class<S> type) {
+        //Fast path, slot is already there.
+        Object value = this.read(Objects.requireNonNull(key, "key cannot be null!"));
+        if (value != null && value.getClass() == type)
+            return (S) value;
+
+        return (S) this.compute(key, (_key, _value) -> {
+            if (_value != null && _value.getClass() == type)
+                return _value;
+            if (_value instanceof MetadataSlot || (_value != null && !(_value instanceof Number)))
+                throw new IllegalStateException("metadata(" + _key + ") cannot be used as " + type.getSimpleName() + "!");
+
+            //Present number must be converted without losing information.
+            Number number = _value == null ? 0 : (Number) _value;
+            Number converted = type == MetadataSlot.IntSlot.class ? (Number) number.intValue() :
+                    type == MetadataSlot.LongSlot.class ? (Number) number.longValue() : (Number) number.doubleValue();
+            if (!fits(number, converted))
+                throw new IllegalStateException("metadata(" + _key + ") value(" + number + ") doesn't fit in " + type.getSimpleName() + "!");
+
+            if (type == MetadataSlot.IntSlot.class)
+                return new MetadataSlot.IntSlot(converted.intValue());
+            if (type == MetadataSlot.LongSlot.class)
+                return new MetadataSlot.LongSlot(converted.longValue());
+            return new MetadataSlot.DoubleSlot(converted.doubleValue());
+        });
+    }
+
+    /**
+     * Gets if number is equal to its converted value or not.
+     *
+     * @param number    Number.
+     * @param converted Converted number. (Integer, Long or Double)
+     * @return If number is converted without losing information or not.
+     */
+    private static boolean fits(@Nonnull Number number, @Nonnull Number converted) {
+        //Values which aren't finite only fit in a double.
+        if (!Double.isFinite(number.doubleValue()))
+            return converted instanceof Double && (number instanceof Double || number instanceof Float);
+
+        //Compares exact values.
+        try {
+            BigDecimal exact = number instanceof Double || number instanceof Float ? new BigDecimal(number.doubleValue()) : new BigDecimal(number.toString());
+            BigDecimal result = converted instanceof Double ? new BigDecimal(converted.doubleValue()) : BigDecimal.valueOf(converted.longValue());
+            return exact.compareTo(result) == 0;
+        } catch (NumberFormatException exception) {
+            return false;
+        }
     }
 
     /**
      * Resets metadata.
+     * If metadata is tracked, each value is recorded as removed.
      */
     public void reset() {
-        //Expires metadata keys.
-        this.metadata.keySet().stream()
-                .filter(key -> key.getClass() == String.class && ((String) key).endsWith(":expire"))
-                .forEach(key -> this.getNonNull(key, Task.class).cancel());
+        MetadataLog log = this.log;
+        if (log == null) {
+            this.clear();
+            return;
+        }
+
+        synchronized (log) {
+            this.metadata.forEach((key, value) -> log.record(MetadataChange.Type.REMOVE, key, null));
+            this.clear();
+        }
+    }
 
-        //Clears metadata.
+    /**
+     * Clears metadata.
+     */
+    private void clear() {
+        //Drops deadlines and pending handlers, then clears metadata.
+        this.sweep = null;
+        Map<Object, Expiry> expiries = this.expiries;
+        if (expiries != null)
+            expiries.clear();
+        Queue<Consumer<Metadata>> expired = this.expired;
+        if (expired != null)
+            expired.clear();
         this.metadata.clear();
     }
+
+    /**
+     * Expiry class.
+     */
+    private static final class Expiry {
+        private final long deadline;
+        private final Consumer<Metadata> handler;
+
+        private Expiry(long deadline, @Nullable Consumer<Metadata> handler) {
+            this.deadline = deadline;
+            this.handler = handler;
+        }
+    }
+
+    /**
+     * Sweep class.
+     * Leaves the wheel once it is replaced by an earlier sweep.
+     */
+    private static final class Sweep implements ExpiryWheel.Entry {
+        private final Metadata metadata;
+        private final long deadline;
+
+        private Sweep(@Nonnull Metadata metadata, long deadline) {
+            this.metadata = metadata;
+            this.deadline = deadline;
+        }
+
+        @Override
+        public long getDeadline() {
+            return this.metadata.sweep == this ? this.deadline : Long.MAX_VALUE;
+        }
+
+        @Override
+        public void expire() {
+            this.metadata.sweep(this);
+        }
+    }
 }
@@ -0,0 +1,87 @@
+package com.barden.library.metadata;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+/**
+ * Metadata change class.
+ * A single versioned change of a tracked metadata.
+ */
+public final class MetadataChange {
+
+    /**
+     * Metadata change types.
+     */
+    public enum Type {
+        SET,
+        REMOVE,
+        EXPIRE
+    }
+
+    private final long version;
+    private final Type type;
+    private final Object key;
+    private final Object value;
+
+    /**
+     * Creates metadata change object.
+     *
+     * @param version Version of the change.
+     * @param type    Change type.
+     * @param key     Key.
+     * @param value   New value. (Null if it is not a set)
+     */
+    MetadataChange(long version, @Nonnull Type type, @Nonnull Object key, @Nullable Object value) {
+        this.version = version;
+        this.type = type;
+        this.key = key;
+        this.value = value;
+    }
+
+    /**
+     * Gets version.
+     *
+     * @return Version of the change.
+     */
+    public long getVersion() {
+        return this.version;
+    }
+
+    /**
+     * Gets type.
+     *
+     * @return Change type.
+     */
+    @Nonnull
+    public Type getType() {
+        return this.type;
+    }
+
+    /**
+     * Gets key.
+     *
+     * @return Key.
+     */
+    @Nonnull
+    public Object getKey() {
+        return this.key;
+    }
+
+    /**
+     * Gets new value.
+     *
+     * @return New value. (Optional)
+     */
+    @Nullable
+    public Object getValue() {
+        return this.value;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String toString() {
+        return this.version + ":" + this.type + "(" + this.key + (this.value == null ? "" : "=" + this.value) + ")";
+    }
+}
@@ -1,13 +1,26 @@
 package com.barden.library.metadata;
 
 import javax.annotation.Nonnull;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
 
 /**
  * Metadata entity class.
+ * Metadata is created on first use, entities which never store anything don't pay for it.
  */
 public abstract class MetadataEntity {
 
-    protected final Metadata metadata = new Metadata();
+    private static final VarHandle METADATA;
+
+    static {
+        try {
+            METADATA = MethodHandles.lookup().findVarHandle(MetadataEntity.class, "metadata", Metadata.class);
+        } catch (ReflectiveOperationException exception) {
+            throw new ExceptionInInitializerError(exception);
+        }
+    }
+
+    private volatile Metadata metadata;
 
     /**
      * Gets metadata.
@@ -16,6 +29,34 @@ public abstract class MetadataEntity {
      */
     @Nonnull
     public final Metadata metadata() {
+        Metadata metadata = this.metadata;
+        if (metadata != null)
+            return metadata;
+
+        //Creates metadata, concurrent callers get the same one.
+        METADATA.compareAndSet(this, null, new Metadata());
         return this.metadata;
     }
+
+    /**
+     * Gets metadata.
+     * Subclasses used to read the former protected {@code metadata} field, which is created lazily now.
+     *
+     * @return Metadata.
+     * @deprecated Use {@link #metadata()} instead.
+     */
+    @Nonnull
+    @Deprecated
+    protected final Metadata getMetadata() {
+        return this.metadata();
+    }
+
+    /**
+     * Gets if metadata is created or not.
+     *
+     * @return If metadata is created or not.
+     */
+    public final boolean hasMetadata() {
+        return this.metadata != null;
+    }
 }
@@ -0,0 +1,91 @@
+package com.barden.library.metadata;
+
+import javax.annotation.Nonnull;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Metadata key class.
+ * A typed handle of a metadata value. Keys are interned by name,
+ * so the same name always gives the same key and the same type.
+ *
+ * @param <T> Value type.
+ */
+public final class MetadataKey<T> {
+
+    /*
+    STATICS
+     */
+
+    private static final Map<String, MetadataKey<?>> KEYS = new ConcurrentHashMap<>();
+
+    /**
+     * Gets metadata key of the name, creates if it doesn't exist.
+     *
+     * @param name Key name.
+     * @param type Value class.
+     * @param <T>  Value type.
+     * @return Metadata key.
+     * @throws IllegalArgumentException If name is already used with another type.
+     */
+    @Nonnull
+    @SuppressWarnings("unchecked")
+    public static <T> MetadataKey<T> of(@Nonnull String name, @Nonnull Class<T> type) {
+        //Objects null check.
+        Objects.requireNonNull(name, "name cannot be null!");
+        Objects.requireNonNull(type, "type cannot be null!");
+
+        MetadataKey<?> key = KEYS.computeIfAbsent(name, _name -> new MetadataKey<>(_name, type));
+        if (key.type != type)
+            throw new IllegalArgumentException("metadata key(" + name + ") is already used with " + key.type.getSimpleName() + "!");
+        return (MetadataKey<T>) key;
+    }
+
+
+    /*
+    ROOT
+     */
+
+    private final String name;
+    private final Class<T> type;
+
+    /**
+     * Creates metadata key object.
+     *
+     * @param name Key name.
+     * @param type Value class.
+     */
+    private MetadataKey(@Nonnull String name, @Nonnull Class<T> type) {
+        this.name = name;
+        this.type = type;
+    }
+
+    /**
+     * Gets name.
+     *
+     * @return Key name.
+     */
+    @Nonnull
+    public String getName() {
+        return this.name;
+    }
+
+    /**
+     * Gets type.
+     *
+     * @return Value class.
+     */
+    @Nonnull
+    public Class<T> getType() {
+        return this.type;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String toString() {
+        return this.name;
+    }
+}
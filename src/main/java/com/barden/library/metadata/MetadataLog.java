@@ -0,0 +1,81 @@
+package com.barden.library.metadata;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Metadata log class.
+ * Keeps the last changes of a tracked metadata in a ring. Writers of the metadata hold
+ * the log lock while they change a value, so versions follow the order values are written.
+ */
+final class MetadataLog {
+
+    private final MetadataChange[] changes;
+    private volatile long version;
+
+    /**
+     * Creates metadata log object.
+     *
+     * @param capacity Maximum change count to keep.
+     */
+    MetadataLog(int capacity) {
+        this.changes = new MetadataChange[capacity];
+    }
+
+    /**
+     * Gets capacity.
+     *
+     * @return Maximum change count to keep.
+     */
+    int getCapacity() {
+        return this.changes.length;
+    }
+
+    /**
+     * Gets version.
+     *
+     * @return Version of the last change. (0 if there is none)
+     */
+    long getVersion() {
+        return this.version;
+    }
+
+    /**
+     * Records a change.
+     *
+     * @param type  Change type.
+     * @param key   Key.
+     * @param value New value. (Null if it is not a set)
+     */
+    synchronized void record(@Nonnull MetadataChange.Type type, @Nonnull Object key, @Nullable Object value) {
+        long version = this.version + 1;
+        this.changes[(int) (version % this.changes.length)] = new MetadataChange(version, type, key, value);
+        this.version = version;
+    }
+
+    /**
+     * Gets changes after a version, only the last change of each key is kept.
+     *
+     * @param from Version to take changes after.
+     * @param to   Version to take changes until, inclusive.
+     * @return Changes ordered by version. (Null if the log doesn't reach back to the version)
+     */
+    @Nullable
+    synchronized List<MetadataChange> diff(long from, long to) {
+        if (from < this.version - this.changes.length)
+            return null;
+
+        //Collapses changes by key, re-inserting keeps them ordered by their last version.
+        Map<Object, MetadataChange> last = new LinkedHashMap<>();
+        for (long version = from + 1; version <= to; version++) {
+            MetadataChange change = this.changes[(int) (version % this.changes.length)];
+            last.remove(change.getKey());
+            last.put(change.getKey(), change);
+        }
+        return new ArrayList<>(last.values());
+    }
+}
@@ -0,0 +1,315 @@
+package com.barden.library.metadata;
+
+import javax.annotation.Nonnull;
+import java.io.Serial;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+
+/**
+ * Metadata slot class.
+ * A mutable primitive counter stored as a metadata value, updated atomically without boxing.
+ * Getters of metadata return the current value boxed, so slots look like plain numbers to them.
+ */
+abstract class MetadataSlot extends Number {
+
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Gets current value boxed.
+     *
+     * @return Current value.
+     */
+    @Nonnull
+    abstract Number box();
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String toString() {
+        return this.box().toString();
+    }
+
+    /**
+     * Int slot class.
+     */
+    static final class IntSlot extends MetadataSlot {
+
+        @Serial
+        private static final long serialVersionUID = 1L;
+
+        private static final VarHandle VALUE;
+
+        static {
+            try {
+                VALUE = MethodHandles.lookup().findVarHandle(IntSlot.class, "value", int.class);
+            } catch (ReflectiveOperationException exception) {
+                throw new ExceptionInInitializerError(exception);
+            }
+        }
+
+        private volatile int value;
+
+        /**
+         * Creates int slot object.
+         *
+         * @param value Initial value.
+         */
+        IntSlot(int value) {
+            this.value = value;
+        }
+
+        /**
+         * Adds to value atomically.
+         *
+         * @param delta Delta.
+         * @return Updated value.
+         */
+        int add(int delta) {
+            return (int) VALUE.getAndAdd(this, delta) + delta;
+        }
+
+        /**
+         * Sets value atomically if it has the expected value.
+         *
+         * @param expected Expected value.
+         * @param update   New value.
+         * @return If value is updated or not.
+         */
+        boolean compareAndSet(int expected, int update) {
+            return VALUE.compareAndSet(this, expected, update);
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Nonnull
+        @Override
+        Number box() {
+            return this.value;
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public int intValue() {
+            return this.value;
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public long longValue() {
+            return this.value;
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public float floatValue() {
+            return this.value;
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public double doubleValue() {
+            return this.value;
+        }
+    }
+
+    /**
+     * Long slot class.
+     */
+    static final class LongSlot extends MetadataSlot {
+
+        @Serial
+        private static final long serialVersionUID = 1L;
+
+        private static final VarHandle VALUE;
+
+        static {
+            try {
+                VALUE = MethodHandles.lookup().findVarHandle(LongSlot.class, "value", long.class);
+            } catch (ReflectiveOperationException exception) {
+                throw new ExceptionInInitializerError(exception);
+            }
+        }
+
+        private volatile long value;
+
+        /**
+         * Creates long slot object.
+         *
+         * @param value Initial value.
+         */
+        LongSlot(long value) {
+            this.value = value;
+        }
+
+        /**
+         * Adds to value atomically.
+         *
+         * @param delta Delta.
+         * @return Updated value.
+         */
+        long add(long delta) {
+            return (long) VALUE.getAndAdd(this, delta) + delta;
+        }
+
+        /**
+         * Sets value atomically if it has the expected value.
+         *
+         * @param expected Expected value.
+         * @param update   New value.
+         * @return If value is updated or not.
+         */
+        boolean compareAndSet(long expected, long update) {
+            return VALUE.compareAndSet(this, expected, update);
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Nonnull
+        @Override
+        Number box() {
+            return this.value;
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public int intValue() {
+            return (int) this.value;
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public long longValue() {
+            return this.value;
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public float floatValue() {
+            return this.value;
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public double doubleValue() {
+            return this.value;
+        }
+    }
+
+    /**
+     * Double slot class.
+     * Value is kept as raw long bits, so it can be compared and set atomically.
+     */
+    static final class DoubleSlot extends MetadataSlot {
+
+        @Serial
+        private static final long serialVersionUID = 1L;
+
+        private static final VarHandle BITS;
+
+        static {
+            try {
+                BITS = MethodHandles.lookup().findVarHandle(DoubleSlot.class, "bits", long.class);
+            } catch (ReflectiveOperationException exception) {
+                throw new ExceptionInInitializerError(exception);
+            }
+        }
+
+        private volatile long bits;
+
+        /**
+         * Creates double slot object.
+         *
+         * @param value Initial value.
+         */
+        DoubleSlot(double value) {
+            this.bits = Double.doubleToRawLongBits(value);
+        }
+
+        /**
+         * Adds to value atomically.
+         *
+         * @param delta Delta.
+         * @return Updated value.
+         */
+        double add(double delta) {
+            while (true) {
+                long bits = this.bits;
+                double next = Double.longBitsToDouble(bits) + delta;
+                if (BITS.compareAndSet(this, bits, Double.doubleToRawLongBits(next)))
+                    return next;
+            }
+        }
+
+        /**
+         * Sets value atomically if it has the expected value.
+         *
+         * @param expected Expected value.
+         * @param update   New value.
+         * @return If value is updated or not.
+         */
+        boolean compareAndSet(double expected, double update) {
+            return BITS.compareAndSet(this, Double.doubleToRawLongBits(expected), Double.doubleToRawLongBits(update));
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Nonnull
+        @Override
+        Number box() {
+            return this.doubleValue();
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public int intValue() {
+            return (int) this.doubleValue();
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public long longValue() {
+            return (long) this.doubleValue();
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public float floatValue() {
+            return (float) this.doubleValue();
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public double doubleValue() {
+            return Double.longBitsToDouble(this.bits);
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.barden.library.metadata;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Metadata snapshot class.
+ * Immutable values of a metadata at a version, counters are captured as plain numbers.
+ */
+public final class MetadataSnapshot {
+
+    private final long version;
+    private final Map<Object, Object> values;
+
+    /**
+     * Creates metadata snapshot object.
+     *
+     * @param version Version of the metadata.
+     * @param values  Values.
+     */
+    MetadataSnapshot(long version, @Nonnull Map<Object, Object> values) {
+        this.version = version;
+        this.values = Collections.unmodifiableMap(values);
+    }
+
+    /**
+     * Gets version.
+     * Changes after this version can be taken with {@link Metadata#diff(long, long)}.
+     *
+     * @return Version of the metadata.
+     */
+    public long getVersion() {
+        return this.version;
+    }
+
+    /**
+     * Gets values.
+     *
+     * @return Unmodifiable key and value map.
+     */
+    @Nonnull
+    public Map<Object, Object> getValues() {
+        return this.values;
+    }
+
+    /**
+     * Gets value of the key.
+     *
+     * @param key Key.
+     * @return Value. (Optional)
+     */
+    @Nullable
+    public Object get(@Nonnull Object key) {
+        return this.values.get(Objects.requireNonNull(key, "key cannot be null!"));
+    }
+
+    /**
+     * Gets value count.
+     *
+     * @return Value count.
+     */
+    public int size() {
+        return this.values.size();
+    }
+}
@@ -0,0 +1,210 @@
+package com.barden.library.metadata;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
+
+/**
+ * Metadata storage class.
+ * Holds values of a metadata, reads are lock-free.
+ * <p>
+ * Most metadata hold only a few values, so up to {@link #FLAT_LIMIT} of them are kept in a flat
+ * copy-on-write array of keys and values. Writes replace the array under a lock, reads scan it.
+ * Once it outgrows the limit, storage is promoted to a concurrent hash map for good.
+ */
+final class MetadataStorage {
+
+    /**
+     * Maximum value count of the flat array.
+     */
+    static final int FLAT_LIMIT = 8;
+
+    private static final Object[] EMPTY = new Object[0];
+    private static final Object[] PROMOTED = new Object[0];
+
+    private volatile Object[] flat = EMPTY;
+    private volatile Map<Object, Object> map;
+
+    /**
+     * Gets value of the key.
+     *
+     * @param key Key.
+     * @return Value. (Optional)
+     */
+    @Nullable
+    Object get(@Nonnull Object key) {
+        Object[] flat = this.flat;
+        if (flat == PROMOTED)
+            return this.map.get(key);
+
+        int index = indexOf(flat, key);
+        return index < 0 ? null : flat[index + 1];
+    }
+
+    /**
+     * Puts value of the key.
+     *
+     * @param key   Key.
+     * @param value Value.
+     * @return Previous value. (Optional)
+     */
+    @Nullable
+    Object put(@Nonnull Object key, @Nonnull Object value) {
+        Object[] previous = new Object[1];
+        this.compute(key, (_key, _value) -> {
+            previous[0] = _value;
+            return value;
+        });
+        return previous[0];
+    }
+
+    /**
+     * Removes value of the key.
+     *
+     * @param key Key.
+     * @return Removed value. (Optional)
+     */
+    @Nullable
+    Object remove(@Nonnull Object key) {
+        Object[] previous = new Object[1];
+        this.compute(key, (_key, _value) -> {
+            previous[0] = _value;
+            return null;
+        });
+        return previous[0];
+    }
+
+    /**
+     * Removes value of the key if it is still the given value.
+     *
+     * @param key   Key.
+     * @param value Value.
+     * @return If value is removed or not.
+     */
+    boolean remove(@Nonnull Object key, @Nonnull Object value) {
+        boolean[] removed = new boolean[1];
+        this.compute(key, (_key, _value) -> {
+            if (!value.equals(_value))
+                return _value;
+            removed[0] = true;
+            return null;
+        });
+        return removed[0];
+    }
+
+    /**
+     * Computes value of the key atomically.
+     *
+     * @param key      Key.
+     * @param function Function of key and present value. (Returning null removes the value)
+     * @return New value. (Optional)
+     */
+    @Nullable
+    Object compute(@Nonnull Object key, @Nonnull BiFunction<Object, Object, Object> function) {
+        //If storage is promoted, no need to lock.
+        if (this.flat == PROMOTED)
+            return this.map.compute(key, function);
+
+        synchronized (this) {
+            Object[] flat = this.flat;
+            if (flat == PROMOTED)
+                return this.map.compute(key, function);
+
+            int index = indexOf(flat, key);
+            Object present = index < 0 ? null : flat[index + 1];
+            Object value = function.apply(key, present);
+
+            //Replaces or removes present value.
+            if (index >= 0) {
+                if (value == present)
+                    return value;
+                if (value != null) {
+                    Object[] next = flat.clone();
+                    next[index + 1] = value;
+                    this.flat = next;
+                } else {
+                    Object[] next = new Object[flat.length - 2];
+                    System.arraycopy(flat, 0, next, 0, index);
+                    System.arraycopy(flat, index + 2, next, index, flat.length - index - 2);
+                    this.flat = next.length == 0 ? EMPTY : next;
+                }
+                return value;
+            }
+
+            //If there is nothing to add, no need to continue.
+            if (value == null)
+                return null;
+
+            //Appends value, or promotes storage once it is full.
+            if (flat.length < FLAT_LIMIT * 2) {
+                Object[] next = Arrays.copyOf(flat, flat.length + 2);
+                next[flat.length] = key;
+                next[flat.length + 1] = value;
+                this.flat = next;
+            } else {
+                Map<Object, Object> map = new ConcurrentHashMap<>(FLAT_LIMIT * 4);
+                for (int i = 0; i < flat.length; i += 2)
+                    map.put(flat[i], flat[i + 1]);
+                map.put(key, value);
+                this.map = map;
+                this.flat = PROMOTED;
+            }
+            return value;
+        }
+    }
+
+    /**
+     * Performs action for each key and value.
+     *
+     * @param action Action.
+     */
+    void forEach(@Nonnull BiConsumer<Object, Object> action) {
+        Object[] flat = this.flat;
+        if (flat == PROMOTED) {
+            this.map.forEach(action);
+            return;
+        }
+
+        for (int i = 0; i < flat.length; i += 2)
+            action.accept(flat[i], flat[i + 1]);
+    }
+
+    /**
+     * Gets value count.
+     *
+     * @return Value count.
+     */
+    int size() {
+        Object[] flat = this.flat;
+        return flat == PROMOTED ? this.map.size() : flat.length / 2;
+    }
+
+    /**
+     * Removes all values.
+     */
+    synchronized void clear() {
+        if (this.flat == PROMOTED)
+            this.map.clear();
+        else
+            this.flat = EMPTY;
+    }
+
+    /**
+     * Finds index of the key in the flat array.
+     *
+     * @param flat Flat array.
+     * @param key  Key.
+     * @return Index of the key. (-1 if it doesn't exist)
+     */
+    private static int indexOf(@Nonnull Object[] flat, @Nonnull Object key) {
+        for (int i = 0; i < flat.length; i += 2)
+            if (Objects.equals(flat[i], key))
+                return i;
+        return -1;
+    }
+}
@@ -1,15 +1,21 @@
 package com.barden.library.module;
 
+import com.barden.library.BardenJavaLibrary;
+import com.barden.library.scheduler.graph.TaskGraph;
+
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
-import java.util.Arrays;
-import java.util.Collection;
-import java.util.List;
-import java.util.Objects;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * Module library.
+ * Modules are either set directly or registered with a factory. Factories are created
+ * lazily on first get, or all together with {@link #initialize()} in dependency order.
+ * Lookups by type are cached per class until modules change.
  */
 @SuppressWarnings("unchecked")
 public final class Module {
@@ -22,9 +28,14 @@ public final class Module {
     }
 
     private final ConcurrentHashMap<Object, Object> modules = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Object, Factory> factories = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Class<?>, TypeIndex> types = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Object, Long> startupTimes = new ConcurrentHashMap<>();
+    private final AtomicLong version = new AtomicLong();
 
     /**
      * Gets modules.
+     * Registered factories which are not created yet are not included.
      *
      * @param <T> Module type.
      * @return Modules.
@@ -35,38 +46,61 @@ public final class Module {
 
     /**
      * Gets modules.
+     * Registered factories which are not created yet are not included.
      *
      * @param moduleType Module type class.
      * @param <T>        Module type.
-     * @return Modules.
+     * @return Unmodifiable modules which are instance of the type.
      */
     public <T> Collection<T> get(@Nonnull Class<T> moduleType) {
         Objects.requireNonNull(moduleType, "module type cannot be null!");
-        return (Collection<T>) modules.values();
+
+        //If cached lookup is still up to date, no need to filter modules again.
+        long version = this.version.get();
+        TypeIndex index = this.types.get(moduleType);
+        if (index != null && index.version == version)
+            return (Collection<T>) index.modules;
+
+        //Filters modules, version is taken before so a concurrent change makes it stale.
+        List<Object> modules = new ArrayList<>();
+        for (Object module : this.modules.values())
+            if (moduleType.isInstance(module))
+                modules.add(module);
+        index = new TypeIndex(version, Collections.unmodifiableList(modules));
+        this.types.put(moduleType, index);
+        return (Collection<T>) index.modules;
     }
 
     /**
-     * Gets module.
+     * Gets module, creates it if it is registered with a factory.
      *
      * @param key Key.
      * @param <T> Value type.
      * @return Value.
+     * @throws IllegalStateException If module factory couldn't create the module.
      */
     public <T> T get(@Nonnull Object key) {
-        return (T) this.modules.get(Objects.requireNonNull(key, "key cannot be null!"));
+        Object module = this.modules.get(Objects.requireNonNull(key, "key cannot be null!"));
+        if (module != null)
+            return (T) module;
+
+        Factory factory = this.factories.get(key);
+        return factory == null ? null : (T) this.create(factory);
     }
 
     /**
-     * Gets module.
+     * Gets module, creates it if it is registered with a factory.
      *
      * @param key  Key.
      * @param type Value type class.
      * @param <T>  Value type.
-     * @return Value.
+     * @return Value. (Null if it doesn't exist or is not instance of the type)
+     * @throws IllegalStateException If module factory couldn't create the module.
      */
-    public <T> T get(@Nonnull Object key, @Nullable Class<T> type) {
+    public <T> T get(@Nonnull Object key, @Nonnull Class<T> type) {
         Objects.requireNonNull(type, "type cannot be null!");
-        return (T) this.modules.get(Objects.requireNonNull(key, "key cannot be null!"));
+        Object module = this.get(key);
+        return type.isInstance(module) ? (T) module : null;
     }
 
     /**
@@ -88,12 +122,52 @@ public final class Module {
 
         //Not override option functionality.
         if (options.contains(Option.NOT_OVERRIDE)) {
-            if (this.modules.containsKey(key))
+            if (this.modules.containsKey(key) || this.factories.containsKey(key))
                 return;
         }
 
-        //Saves module to the map.
+        //Saves module to the map, it replaces factory of the key.
         this.modules.put(key, value);
+        this.factories.remove(key);
+        this.version.incrementAndGet();
+    }
+
+    /**
+     * Registers module factory.
+     * Module is created on first get, or with {@link #initialize()}.
+     *
+     * @param <T>          Module type.
+     * @param key          Key.
+     * @param factory      Module factory.
+     * @param dependencies Keys of modules to create before.
+     * @throws IllegalArgumentException If module already exists or dependencies have a cycle.
+     */
+    public <T> void register(@Nonnull Object key, @Nonnull ModuleFactory<T> factory, @Nonnull Object... dependencies) {
+        //Objects null check.
+        Objects.requireNonNull(key, "key cannot be null!");
+        Objects.requireNonNull(factory, "factory cannot be null!");
+        Objects.requireNonNull(dependencies, "dependencies cannot be null!");
+
+        synchronized (this.factories) {
+            //If module is already exist, throws error.
+            if (this.modules.containsKey(key) || this.factories.containsKey(key))
+                throw new IllegalArgumentException("module(" + key + ") is already exist!");
+
+            //If any dependency leads back to the module, there is a cycle.
+            Factory created = new Factory(key, factory, List.of(dependencies));
+            Deque<Object> queue = new ArrayDeque<>(created.dependencies);
+            Set<Object> visited = new HashSet<>();
+            while (!queue.isEmpty()) {
+                Object dependency = queue.poll();
+                if (dependency.equals(key))
+                    throw new IllegalArgumentException("module(" + key + ") has a dependency cycle!");
+                Factory next = this.factories.get(dependency);
+                if (next != null && visited.add(dependency))
+                    queue.addAll(next.dependencies);
+            }
+
+            this.factories.put(key, created);
+        }
     }
 
     /**
@@ -103,5 +177,142 @@ public final class Module {
      */
     public void remove(@Nonnull Object key) {
         this.modules.remove(Objects.requireNonNull(key, "key cannot be null!"));
+        this.factories.remove(key);
+        this.startupTimes.remove(key);
+        this.version.incrementAndGet();
+    }
+
+
+    /*
+    STARTUP
+     */
+
+    /**
+     * Creates all registered modules in parallel, each one after its dependencies.
+     * Returned future completes exceptionally if any module couldn't be created,
+     * modules depending on it are not created.
+     *
+     * @return Completable future.
+     * @throws IllegalArgumentException If a dependency doesn't exist.
+     */
+    @Nonnull
+    public CompletableFuture<Void> initialize() {
+        //Declares node names of the modules which are not created yet. Keys may print the same, names are indexed.
+        Map<Object, Factory> pending = new HashMap<>(this.factories);
+        Map<Object, String> names = new HashMap<>();
+        for (Object key : pending.keySet())
+            names.put(key, names.size() + ":" + key);
+
+        //Declares graph of the modules.
+        TaskGraph graph = TaskGraph.create();
+        long start = System.nanoTime();
+        for (Factory factory : pending.values()) {
+            List<String> dependencies = new ArrayList<>();
+            for (Object dependency : factory.dependencies) {
+                if (pending.containsKey(dependency))
+                    dependencies.add(names.get(dependency));
+                else if (!this.modules.containsKey(dependency))
+                    throw new IllegalArgumentException("module(" + factory.key + ") dependency(" + dependency + ") doesn't exist!");
+            }
+            graph.node(names.get(factory.key), task -> this.create(factory), dependencies.toArray(String[]::new));
+        }
+
+        //Logs startup once modules are created.
+        return graph.execute().whenComplete((ignored, error) -> {
+            if (error != null)
+                return;
+            long duration = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+            StringBuilder slowest = new StringBuilder();
+            this.getStartupTimes().entrySet().stream().limit(3).forEach(entry -> slowest.append(slowest.isEmpty() ? "" : ", ")
+                    .append(entry.getKey()).append("=").append(TimeUnit.NANOSECONDS.toMillis(entry.getValue())).append("ms"));
+            BardenJavaLibrary.getLogger().info("Initialized " + pending.size() + " modules in " + duration + "ms. (slowest: " + slowest + ")");
+        });
+    }
+
+    /**
+     * Gets startup times.
+     * Time of a module doesn't include creating its dependencies.
+     *
+     * @return Module key and creation time in nanoseconds map, slowest first.
+     */
+    @Nonnull
+    public Map<Object, Long> getStartupTimes() {
+        Map<Object, Long> times = new LinkedHashMap<>();
+        this.startupTimes.entrySet().stream()
+                .sorted(Map.Entry.<Object, Long>comparingByValue().reversed())
+                .forEach(entry -> times.put(entry.getKey(), entry.getValue()));
+        return Collections.unmodifiableMap(times);
+    }
+
+    /**
+     * Creates module of the factory once, creates its dependencies before.
+     *
+     * @param factory Factory.
+     * @return Module.
+     * @throws IllegalStateException If a dependency doesn't exist or module couldn't be created.
+     */
+    @Nonnull
+    private Object create(@Nonnull Factory factory) {
+        synchronized (factory) {
+            //If module is already created, no need to continue.
+            Object module = this.modules.get(factory.key);
+            if (module != null)
+                return module;
+
+            //Creates dependencies first, so they are not counted in startup time.
+            for (Object dependency : factory.dependencies) {
+                if (this.get(dependency) == null)
+                    throw new IllegalStateException("module(" + factory.key + ") dependency(" + dependency + ") doesn't exist!");
+            }
+
+            //Creates module.
+            long start = System.nanoTime();
+            try {
+                module = Objects.requireNonNull(factory.factory.create(this), "module cannot be null!");
+            } catch (Exception exception) {
+                throw new IllegalStateException("Couldn't create module(" + factory.key + ")!", exception);
+            }
+            this.startupTimes.put(factory.key, System.nanoTime() - start);
+
+            //Saves module unless factory is replaced or removed meanwhile. Module is saved
+            //before factory is dropped, so concurrent gets always find one of them.
+            if (this.factories.get(factory.key) == factory) {
+                Object present = this.modules.putIfAbsent(factory.key, module);
+                if (present != null)
+                    return present;
+                this.factories.remove(factory.key, factory);
+                this.version.incrementAndGet();
+            }
+            return module;
+        }
+    }
+
+    /**
+     * Factory class.
+     */
+    private static final class Factory {
+        private final Object key;
+        private final ModuleFactory<?> factory;
+        private final List<Object> dependencies;
+
+        private Factory(@Nonnull Object key, @Nonnull ModuleFactory<?> factory, @Nonnull List<Object> dependencies) {
+            this.key = key;
+            this.factory = factory;
+            this.dependencies = dependencies;
+        }
+    }
+
+    /**
+     * Type index class.
+     * Modules of a type, valid while version of the library is the same.
+     */
+    private static final class TypeIndex {
+        private final long version;
+        private final Collection<Object> modules;
+
+        private TypeIndex(long version, @Nonnull Collection<Object> modules) {
+            this.version = version;
+            this.modules = modules;
+        }
     }
 }
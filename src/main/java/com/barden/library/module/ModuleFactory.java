@@ -0,0 +1,23 @@
+package com.barden.library.module;
+
+import javax.annotation.Nonnull;
+
+/**
+ * Module factory interface.
+ *
+ * @param <T> Module type.
+ */
+@FunctionalInterface
+public interface ModuleFactory<T> {
+
+    /**
+     * Creates module.
+     * Dependencies declared with the factory are already created, they can be taken from the module library.
+     *
+     * @param module Module library.
+     * @return Module.
+     * @throws Exception If module couldn't be created.
+     */
+    @Nonnull
+    T create(@Nonnull Module module) throws Exception;
+}
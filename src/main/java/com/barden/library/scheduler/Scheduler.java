@@ -1,8 +1,11 @@
 package com.barden.library.scheduler;
 
+import com.barden.library.scheduler.cron.CronExpression;
 import com.barden.library.scheduler.task.Task;
 
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.time.ZoneId;
 import java.util.Objects;
 import java.util.concurrent.TimeUnit;
 import java.util.function.Consumer;
@@ -12,9 +15,21 @@ import java.util.function.Consumer;
  */
 public final class Scheduler {
 
+    /**
+     * Default slack in milliseconds for timers which tolerate imprecision. (Expiry, TTL etc.)
+     */
+    public static final long DEFAULT_SLACK = 250;
+
     private Consumer<Task> consumer;
+    private String name;
     private long delay;
     private long repeat;
+    private long slack;
+    private long deadline;
+    private CronExpression cron;
+    private ZoneId zone;
+    private String leader;
+    private long leaderTtl;
     private boolean block;
 
     /**
@@ -27,6 +42,16 @@ public final class Scheduler {
         return this.consumer;
     }
 
+    /**
+     * Gets name.
+     *
+     * @return Name. (Optional)
+     */
+    @Nullable
+    public String getName() {
+        return this.name;
+    }
+
     /**
      * Gets delay.
      *
@@ -45,6 +70,63 @@ public final class Scheduler {
         return this.repeat;
     }
 
+    /**
+     * Gets slack.
+     *
+     * @return Slack.
+     */
+    public long getSlack() {
+        return this.slack;
+    }
+
+    /**
+     * Gets deadline.
+     *
+     * @return Deadline in milliseconds. (0 if there is no deadline)
+     */
+    public long getDeadline() {
+        return this.deadline;
+    }
+
+    /**
+     * Gets cron expression.
+     *
+     * @return Cron expression. (Optional)
+     */
+    @Nullable
+    public CronExpression getCron() {
+        return this.cron;
+    }
+
+    /**
+     * Gets cron time zone.
+     *
+     * @return Cron time zone.
+     */
+    @Nonnull
+    public ZoneId getZone() {
+        return this.zone == null ? ZoneId.systemDefault() : this.zone;
+    }
+
+    /**
+     * Gets leader election name.
+     *
+     * @return Leader election name. (Optional)
+     */
+    @Nullable
+    public String getLeader() {
+        return this.leader;
+    }
+
+    /**
+     * Gets leader lease time to live.
+     *
+     * @return Leader lease time to live in milliseconds.
+     */
+    public long getLeaderTtl() {
+        return this.leaderTtl;
+    }
+
     /**
      * Gets if scheduler blocks main thread or not.
      *
@@ -54,6 +136,19 @@ public final class Scheduler {
         return this.block;
     }
 
+    /**
+     * Sets name.
+     * Runs of the tasks with a name are recorded to the scheduler metrics.
+     *
+     * @param name Name.
+     * @return Scheduler.
+     */
+    @Nonnull
+    public Scheduler name(@Nonnull String name) {
+        this.name = Objects.requireNonNull(name, "name cannot be null!");
+        return this;
+    }
+
     /**
      * Sets delay.
      *
@@ -80,6 +175,98 @@ public final class Scheduler {
         return this;
     }
 
+    /**
+     * Sets slack.
+     * Task may run up to slack later than its delay, so it can share a single
+     * timer wakeup with other tasks due around the same time.
+     * Only one-shot tasks are coalesced, repeating tasks ignore slack.
+     *
+     * @param time Time.
+     * @param unit Time unit.
+     * @return Scheduler.
+     */
+    @Nonnull
+    public Scheduler slack(long time, @Nonnull TimeUnit unit) {
+        this.slack = Objects.requireNonNull(unit, "time unit cannot be null!").toMillis(time);
+        return this;
+    }
+
+    /**
+     * Sets deadline.
+     * Each run of the task must finish within the deadline. Otherwise, it is marked as
+     * timed out, its thread is interrupted and the next period is not skipped for it,
+     * even if the run ignores the interrupt. Long running tasks should check
+     * {@link Task#getRemaining(TimeUnit)} or {@link Task#isCancellationRequested()}.
+     *
+     * @param time Time.
+     * @param unit Time unit.
+     * @return Scheduler.
+     */
+    @Nonnull
+    public Scheduler deadline(long time, @Nonnull TimeUnit unit) {
+        this.deadline = Objects.requireNonNull(unit, "time unit cannot be null!").toMillis(time);
+        if (this.deadline <= 0)
+            throw new IllegalArgumentException("deadline must be positive!");
+        return this;
+    }
+
+    /**
+     * Sets cron expression.
+     * Cron tasks run at wall clock times of the system time zone, delay and repeat are ignored.
+     *
+     * @param expression Cron expression.
+     * @return Scheduler.
+     * @throws IllegalArgumentException If expression is not valid.
+     */
+    @Nonnull
+    public Scheduler cron(@Nonnull String expression) {
+        return this.cron(CronExpression.parse(expression), ZoneId.systemDefault());
+    }
+
+    /**
+     * Sets cron expression.
+     * Cron tasks run at wall clock times of the given time zone, delay and repeat are ignored.
+     *
+     * @param expression Cron expression.
+     * @param zone       Time zone.
+     * @return Scheduler.
+     */
+    @Nonnull
+    public Scheduler cron(@Nonnull CronExpression expression, @Nonnull ZoneId zone) {
+        this.cron = Objects.requireNonNull(expression, "expression cannot be null!");
+        this.zone = Objects.requireNonNull(zone, "zone cannot be null!");
+        return this;
+    }
+
+    /**
+     * Makes task cluster singleton.
+     * Every node schedules the task, but it only runs on the node which is the leader of the election.
+     * Leader lease lives 5 seconds.
+     *
+     * @param name Leader election name.
+     * @return Scheduler.
+     */
+    @Nonnull
+    public Scheduler leader(@Nonnull String name) {
+        return this.leader(name, 5, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Makes task cluster singleton.
+     * Every node schedules the task, but it only runs on the node which is the leader of the election.
+     *
+     * @param name Leader election name.
+     * @param ttl  Leader lease time to live. Shorter lease means faster failover and more renewals.
+     * @param unit Time unit.
+     * @return Scheduler.
+     */
+    @Nonnull
+    public Scheduler leader(@Nonnull String name, long ttl, @Nonnull TimeUnit unit) {
+        this.leader = Objects.requireNonNull(name, "name cannot be null!");
+        this.leaderTtl = Objects.requireNonNull(unit, "time unit cannot be null!").toMillis(ttl);
+        return this;
+    }
+
     /**
      * Blocks inside thread.
      *
@@ -1,17 +1,30 @@
 package com.barden.library.scheduler;
 
+import com.barden.library.BardenJavaLibrary;
+import com.barden.library.scheduler.cluster.LeaderElector;
+import com.barden.library.scheduler.cron.CronScheduler;
+import com.barden.library.scheduler.lane.Lane;
+import com.barden.library.scheduler.metric.TaskMetrics;
 import com.barden.library.scheduler.task.Task;
+import com.barden.library.scheduler.tick.TickScheduler;
+import com.barden.library.scheduler.timer.ExpiryWheel;
+import com.barden.library.scheduler.timer.TimerCoalescer;
 import com.google.common.collect.BiMap;
 import com.google.common.collect.HashBiMap;
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Maps;
 import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import javax.annotation.Nonnull;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
 import java.util.function.Consumer;
@@ -58,6 +71,69 @@ public final class SchedulerProvider {
         return new Scheduler().schedule(task);
     }
 
+    /**
+     * Runs a runnable on the worker pool.
+     * Unlike {@link #schedule(Consumer)}, it doesn't create a task, so it
+     * can't be tracked or cancelled, but it is way cheaper. (Fire and forget)
+     *
+     * @param runnable Runnable.
+     */
+    public static void run(@Nonnull Runnable runnable) {
+        Objects.requireNonNull(runnable, "runnable cannot be null!");
+        BardenJavaLibrary.getScheduler().getService().execute(() -> runSafely(runnable));
+    }
+
+    /**
+     * Runs a runnable on the worker pool after given delay.
+     * Unlike {@link #schedule(Consumer)}, it doesn't create a task, so it
+     * can't be tracked or cancelled, but it is way cheaper. (Fire and forget)
+     *
+     * @param runnable Runnable.
+     * @param delay    Delay.
+     * @param unit     Time unit.
+     */
+    public static void runLater(@Nonnull Runnable runnable, long delay, @Nonnull TimeUnit unit) {
+        //Objects null check.
+        Objects.requireNonNull(runnable, "runnable cannot be null!");
+        Objects.requireNonNull(unit, "time unit cannot be null!");
+
+        //Timer thread only fires it, work runs on the worker pool. It is tracked until it fires, so terminate can report it.
+        SchedulerProvider provider = BardenJavaLibrary.getScheduler();
+        Delayed delayed = new Delayed(provider, runnable);
+        provider.delayed.add(delayed);
+        try {
+            provider.getTimerService().schedule(delayed, delay, unit);
+        } catch (RejectedExecutionException exception) {
+            provider.delayed.remove(delayed);
+            throw exception;
+        }
+    }
+
+    /**
+     * Runs a runnable and logs its errors.
+     *
+     * @param runnable Runnable.
+     */
+    private static void runSafely(@Nonnull Runnable runnable) {
+        try {
+            runnable.run();
+        } catch (Exception exception) {
+            logger.error("Couldn't run runnable!", exception);
+        }
+    }
+
+    /**
+     * Executes a runnable in the lane of given key.
+     * Runnables with the same key run one by one in submission order,
+     * runnables with different keys run in parallel.
+     *
+     * @param key      Lane key.
+     * @param runnable Runnable.
+     */
+    public static void serial(@Nonnull Object key, @Nonnull Runnable runnable) {
+        BardenJavaLibrary.getScheduler().execute(key, runnable);
+    }
+
 
     /*
     ROOT
@@ -74,8 +150,35 @@ public final class SchedulerProvider {
             .setNameFormat("Scheduler Timer")
             .build());
 
+    //[TIMER COALESCER]
+    private final TimerCoalescer timerCoalescer = new TimerCoalescer(this.executorTimerService);
+
+    //[EXPIRY WHEEL]
+    private final ExpiryWheel expiryWheel = new ExpiryWheel(this.executorTimerService, this.executorService, Scheduler.DEFAULT_SLACK, TimeUnit.MILLISECONDS, 512);
+
+    //[CRON SCHEDULER]
+    private final CronScheduler cronScheduler = new CronScheduler(this.executorTimerService);
+
     //[SYNCHRONIZED HASH SET]
-    private final BiMap<UUID, Task> tasks = HashBiMap.create();
+    private final BiMap<UUID, Task> tasks = Maps.synchronizedBiMap(HashBiMap.create());
+    //[LANES]
+    private final Map<Object, Lane> lanes = new ConcurrentHashMap<>();
+    //[METRICS]
+    private final TaskMetrics metrics = new TaskMetrics();
+    //[LEADER ELECTORS]
+    private final Map<String, LeaderElector> leaders = new ConcurrentHashMap<>();
+    //[TICK SCHEDULERS]
+    private final Set<TickScheduler> tickSchedulers = ConcurrentHashMap.newKeySet();
+    //[DELAYED RUNNABLES]
+    private final Set<Delayed> delayed = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Creates scheduler provider object.
+     */
+    public SchedulerProvider() {
+        //Exposes task metrics through JMX.
+        this.metrics.register("com.barden.library:type=Scheduler");
+    }
 
     /**
      * Gets executor service.
@@ -97,6 +200,48 @@ public final class SchedulerProvider {
         return this.executorTimerService;
     }
 
+    /**
+     * Gets timer coalescer.
+     *
+     * @return Timer coalescer.
+     */
+    @Nonnull
+    public TimerCoalescer getTimerCoalescer() {
+        return this.timerCoalescer;
+    }
+
+    /**
+     * Gets expiry wheel.
+     * Shared by idle timeouts which are reset too often to reschedule a timer each time.
+     *
+     * @return Expiry wheel.
+     */
+    @Nonnull
+    public ExpiryWheel getExpiryWheel() {
+        return this.expiryWheel;
+    }
+
+    /**
+     * Gets cron scheduler.
+     *
+     * @return Cron scheduler.
+     */
+    @Nonnull
+    public CronScheduler getCronScheduler() {
+        return this.cronScheduler;
+    }
+
+    /**
+     * Gets task metrics.
+     * Only runs of named tasks are recorded.
+     *
+     * @return Task metrics.
+     */
+    @Nonnull
+    public TaskMetrics getMetrics() {
+        return this.metrics;
+    }
+
     /**
      * Gets barden schedulers.
      *
@@ -149,6 +294,159 @@ public final class SchedulerProvider {
         this.tasks.remove(Objects.requireNonNull(task, "task cannot be null!").getId());
     }
 
+    /**
+     * Gets leader elector, creates and starts it if it doesn't exist.
+     *
+     * @param name Leader election name.
+     * @param ttl  Leader lease time to live in milliseconds. Only used when elector is created.
+     * @return Leader elector.
+     */
+    @Nonnull
+    public LeaderElector getLeader(@Nonnull String name, long ttl) {
+        return this.leaders.computeIfAbsent(Objects.requireNonNull(name, "name cannot be null!"), _name -> {
+            LeaderElector elector = new LeaderElector(_name, ttl, TimeUnit.MILLISECONDS);
+            elector.start();
+            return elector;
+        });
+    }
+
+    /**
+     * Gets running tick schedulers.
+     *
+     * @return Running tick schedulers.
+     */
+    @Nonnull
+    public Set<TickScheduler> getTickSchedulers() {
+        return Collections.unmodifiableSet(this.tickSchedulers);
+    }
+
+    /**
+     * Adds tick scheduler.
+     *
+     * @param tickScheduler Tick scheduler.
+     */
+    public void addTickScheduler(@Nonnull TickScheduler tickScheduler) {
+        this.tickSchedulers.add(Objects.requireNonNull(tickScheduler, "tick scheduler cannot be null!"));
+    }
+
+    /**
+     * Removes tick scheduler.
+     *
+     * @param tickScheduler Tick scheduler.
+     */
+    public void removeTickScheduler(@Nonnull TickScheduler tickScheduler) {
+        this.tickSchedulers.remove(Objects.requireNonNull(tickScheduler, "tick scheduler cannot be null!"));
+    }
+
+    /**
+     * Gets active lanes.
+     *
+     * @return Active lanes.
+     */
+    @Nonnull
+    public Collection<Lane> getLanes() {
+        return Collections.unmodifiableCollection(this.lanes.values());
+    }
+
+    /**
+     * Gets lane executor of given key.
+     * Lane is created on demand and reclaimed once it is idle, so the
+     * executor can be kept and reused safely.
+     *
+     * @param key Lane key.
+     * @return Lane executor.
+     */
+    @Nonnull
+    public Executor getLane(@Nonnull Object key) {
+        Objects.requireNonNull(key, "key cannot be null!");
+        return runnable -> this.execute(key, runnable);
+    }
+
+    /**
+     * Executes a runnable in the lane of given key.
+     *
+     * @param key      Lane key.
+     * @param runnable Runnable.
+     */
+    public void execute(@Nonnull Object key, @Nonnull Runnable runnable) {
+        //Objects null check.
+        Objects.requireNonNull(key, "key cannot be null!");
+        Objects.requireNonNull(runnable, "runnable cannot be null!");
+
+        //Offers runnable to the lane, if lane retires meanwhile, retries with a new one.
+        while (true) {
+            Lane lane = this.lanes.computeIfAbsent(key, _key -> new Lane(_key, this.lanes, this.executorService));
+            if (lane.offer(runnable))
+                return;
+            this.lanes.remove(key, lane);
+        }
+    }
+
+    /**
+     * Terminates schedulers gracefully.
+     * Stops accepting new work, lets running and queued work finish
+     * until the timeout and drops the rest. Lanes are drained before
+     * the worker pool is shut down. Timers of the library itself and
+     * pending runs of cancelled tasks are not reported as dropped.
+     *
+     * @param timeout Timeout.
+     * @param unit    Time unit.
+     * @return Runnables which were dropped without running.
+     * @throws InterruptedException If the current thread was interrupted.
+     */
+    @Nonnull
+    public List<Runnable> terminate(long timeout, @Nonnull TimeUnit unit) throws InterruptedException {
+        //Objects null check.
+        Objects.requireNonNull(unit, "time unit cannot be null!");
+
+        //Cancels all tasks without interrupting running ones.
+        Collection<Task> terminating_tasks;
+        synchronized (this.tasks) {
+            terminating_tasks = ImmutableList.copyOf(this.tasks.values());
+        }
+        for (Task task : terminating_tasks)
+            task.cancel(false);
+
+        //Steps down from leaderships.
+        this.leaders.values().forEach(LeaderElector::stop);
+        this.leaders.clear();
+
+        //Stops tick schedulers.
+        for (TickScheduler tickScheduler : ImmutableList.copyOf(this.tickSchedulers))
+            tickScheduler.stop();
+
+        //Stops internal timers, they are not dropped work. Coalesced runnables which aren't cancelled are.
+        List<Runnable> dropped = new ArrayList<>();
+        this.expiryWheel.stop();
+        this.cronScheduler.stop();
+        for (Runnable runnable : this.timerCoalescer.stop())
+            if (!(runnable instanceof Future<?> future && future.isCancelled()))
+                dropped.add(runnable);
+
+        //Drops delayed fire and forget runnables which haven't fired yet. Rest of the timer queue
+        //belongs to cancelled tasks or the library itself. (Deadline watchdogs etc.)
+        this.executorTimerService.shutdownNow();
+        for (Delayed delayed : this.delayed)
+            if (this.delayed.remove(delayed))
+                dropped.add(delayed.runnable);
+
+        //Drains lanes while worker pool still accepts their drainers.
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        while (!this.lanes.isEmpty() && deadline - System.nanoTime() > 0)
+            Thread.sleep(1);
+
+        //Drains worker pool until the timeout, then drops what is left.
+        this.executorService.shutdown();
+        if (!this.executorService.awaitTermination(Math.max(deadline - System.nanoTime(), 0), TimeUnit.NANOSECONDS))
+            dropped.addAll(this.executorService.shutdownNow());
+
+        //Runnables still queued in lanes didn't run in time.
+        for (Lane lane : this.lanes.values())
+            dropped.addAll(lane.getQueued());
+
+        return dropped;
+    }
+
     /**
      * Shutdowns schedulers.
      *
@@ -168,6 +466,14 @@ public final class SchedulerProvider {
         for (Task task : terminating_tasks)
             task.cancel();
 
+        //Steps down from leaderships.
+        this.leaders.values().forEach(LeaderElector::stop);
+        this.leaders.clear();
+
+        //Stops tick schedulers.
+        for (TickScheduler tickScheduler : ImmutableList.copyOf(this.tickSchedulers))
+            tickScheduler.stop();
+
         //Shutdowns executors.
         this.executorTimerService.shutdown();
         this.executorService.shutdown();
@@ -175,4 +481,28 @@ public final class SchedulerProvider {
         //Awaits termination.
         return this.executorService.awaitTermination(10, TimeUnit.SECONDS);
     }
+
+    /**
+     * Delayed class.
+     * Fire and forget runnable waiting on the timer thread.
+     */
+    private static final class Delayed implements Runnable {
+        private final SchedulerProvider provider;
+        private final Runnable runnable;
+
+        private Delayed(@Nonnull SchedulerProvider provider, @Nonnull Runnable runnable) {
+            this.provider = provider;
+            this.runnable = runnable;
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public void run() {
+            //If it is already dropped by terminate, no need to continue.
+            if (this.provider.delayed.remove(this))
+                this.provider.getService().execute(() -> runSafely(this.runnable));
+        }
+    }
 }
@@ -0,0 +1,103 @@
+package com.barden.library.scheduler.cluster;
+
+import com.barden.library.database.redis.RedisLease;
+import com.barden.library.scheduler.SchedulerProvider;
+import com.barden.library.scheduler.task.Task;
+
+import javax.annotation.Nonnull;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Leader elector class.
+ * Every node competes for the same redis lease; the holder is the leader. The lease
+ * is renewed three times per time to live, and followers try to take it over just as
+ * often, so a dead leader is replaced within about one and a third time to live.
+ */
+public final class LeaderElector {
+
+    /**
+     * Key prefix of leader leases.
+     */
+    public static final String KEY_PREFIX = "barden:leader:";
+
+    private final String name;
+    private final RedisLease lease;
+    private Task task;
+
+    /**
+     * Creates leader elector object.
+     *
+     * @param name Election name.
+     * @param ttl  Lease time to live.
+     * @param unit Time unit.
+     */
+    public LeaderElector(@Nonnull String name, long ttl, @Nonnull TimeUnit unit) {
+        this.name = Objects.requireNonNull(name, "name cannot be null!");
+        this.lease = new RedisLease(KEY_PREFIX + name, ttl, unit);
+    }
+
+    /**
+     * Gets name.
+     *
+     * @return Election name.
+     */
+    @Nonnull
+    public String getName() {
+        return this.name;
+    }
+
+    /**
+     * Gets lease.
+     *
+     * @return Redis lease.
+     */
+    @Nonnull
+    public RedisLease getLease() {
+        return this.lease;
+    }
+
+    /**
+     * Gets if this node is the leader or not.
+     *
+     * @return If this node is the leader or not.
+     */
+    public boolean isLeader() {
+        return this.lease.isHeld();
+    }
+
+    /**
+     * Starts election.
+     */
+    public synchronized void start() {
+        //If it is already started, no need to continue.
+        if (this.task != null)
+            return;
+
+        //Competes for the lease until stopped.
+        this.task = SchedulerProvider.create()
+                .name("leader(" + this.name + ")")
+                .every(Math.max(this.lease.getTtl() / 3, 1), TimeUnit.MILLISECONDS)
+                .schedule(task -> {
+                    boolean leader = this.isLeader();
+                    if (this.lease.acquire() != leader)
+                        SchedulerProvider.getLogger().info((leader ? "Lost" : "Took") + " leadership of " + this.name + ".");
+                });
+    }
+
+    /**
+     * Stops election and steps down if this node is the leader.
+     */
+    public synchronized void stop() {
+        //If it is not started, no need to continue.
+        if (this.task == null)
+            return;
+
+        //Cancels election task.
+        this.task.cancel();
+        this.task = null;
+
+        //Steps down, so another node takes over without waiting for the lease to expire.
+        this.lease.release();
+    }
+}
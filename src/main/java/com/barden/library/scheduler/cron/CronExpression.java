@@ -0,0 +1,320 @@
+package com.barden.library.scheduler.cron;
+
+import javax.annotation.Nonnull;
+import java.time.*;
+import java.time.temporal.ChronoUnit;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * Cron expression class.
+ * Expression is parsed once into bit masks, so matching a field is a single
+ * bit operation and finding the next value of a field is a bit scan.
+ * <p>
+ * Supported format is {@code [second] minute hour day-of-month month day-of-week}, with
+ * {@code *}, {@code ?}, lists, ranges, steps, month and day names, and the
+ * {@code @yearly}, {@code @monthly}, {@code @weekly}, {@code @daily} and {@code @hourly} macros.
+ * If both day-of-month and day-of-week are restricted, a day matching either of them matches.
+ * <p>
+ * Daylight saving time: a fire time inside a gap is shifted forward by the length of the gap,
+ * and a fire time inside an overlap fires only once, at its first occurrence.
+ */
+public final class CronExpression {
+
+    private static final Map<String, String> MACROS = Map.of(
+            "@yearly", "0 0 0 1 1 *",
+            "@annually", "0 0 0 1 1 *",
+            "@monthly", "0 0 0 1 * *",
+            "@weekly", "0 0 0 * * 0",
+            "@daily", "0 0 0 * * *",
+            "@midnight", "0 0 0 * * *",
+            "@hourly", "0 0 * * * *");
+    private static final String[] MONTHS = {"JAN", "FEB", "MAR", "APR", "MAY", "JUN", "JUL", "AUG", "SEP", "OCT", "NOV", "DEC"};
+    private static final String[] DAYS = {"SUN", "MON", "TUE", "WED", "THU", "FRI", "SAT"};
+
+    /**
+     * Search limit. If nothing matches within this many years, expression never matches. (Like 30th of February)
+     */
+    private static final int SEARCH_YEARS = 5;
+
+    /**
+     * Parses cron expression.
+     *
+     * @param expression Expression.
+     * @return Cron expression.
+     * @throws IllegalArgumentException If expression is not valid.
+     */
+    @Nonnull
+    public static CronExpression parse(@Nonnull String expression) {
+        return new CronExpression(expression);
+    }
+
+    private final String expression;
+    private final long seconds;
+    private final long minutes;
+    private final long hours;
+    private final long days;
+    private final long months;
+    private final long weekDays;
+    private final boolean anyDay;
+    private final boolean anyWeekDay;
+
+    /**
+     * Creates cron expression object.
+     *
+     * @param expression Expression.
+     */
+    private CronExpression(@Nonnull String expression) {
+        this.expression = Objects.requireNonNull(expression, "expression cannot be null!").trim();
+
+        //Splits fields, 5 field expressions start from minutes.
+        String[] fields = MACROS.getOrDefault(this.expression.toLowerCase(Locale.ROOT), this.expression).split("\\s+");
+        if (fields.length == 5) {
+            String[] withSeconds = new String[6];
+            withSeconds[0] = "0";
+            System.arraycopy(fields, 0, withSeconds, 1, 5);
+            fields = withSeconds;
+        } else if (fields.length != 6) {
+            throw new IllegalArgumentException("cron expression(" + expression + ") must have 5 or 6 fields!");
+        }
+
+        this.seconds = parseField(fields[0], 0, 59, null);
+        this.minutes = parseField(fields[1], 0, 59, null);
+        this.hours = parseField(fields[2], 0, 23, null);
+        this.days = parseField(fields[3], 1, 31, null);
+        this.months = parseField(fields[4], 1, 12, MONTHS);
+        //Both 0 and 7 are sunday.
+        long weekDays = parseField(fields[5], 0, 7, DAYS);
+        this.weekDays = has(weekDays, 7) ? (weekDays & ~(1L << 7)) | 1L : weekDays;
+        this.anyDay = isAny(fields[3]);
+        this.anyWeekDay = isAny(fields[5]);
+    }
+
+    /**
+     * Gets expression.
+     *
+     * @return Expression.
+     */
+    @Nonnull
+    public String getExpression() {
+        return this.expression;
+    }
+
+    /**
+     * Finds next fire time strictly after the given time.
+     *
+     * @param after Time to search after.
+     * @param zone  Time zone the expression is evaluated in.
+     * @return Optional next fire time.
+     */
+    @Nonnull
+    public Optional<ZonedDateTime> next(@Nonnull Instant after, @Nonnull ZoneId zone) {
+        //Objects null check.
+        Objects.requireNonNull(after, "after cannot be null!");
+        Objects.requireNonNull(zone, "zone cannot be null!");
+
+        ZonedDateTime zoned = after.atZone(zone);
+        LocalDateTime time = zoned.toLocalDateTime().truncatedTo(ChronoUnit.SECONDS).plusSeconds(1);
+        LocalDateTime limit = time.plusYears(SEARCH_YEARS);
+
+        while (time.isBefore(limit)) {
+            //Month.
+            if (!has(this.months, time.getMonthValue())) {
+                int month = nextBit(this.months, time.getMonthValue());
+                time = month < 0 ?
+                        LocalDateTime.of(time.getYear() + 1, Long.numberOfTrailingZeros(this.months), 1, 0, 0) :
+                        LocalDateTime.of(time.getYear(), month, 1, 0, 0);
+                continue;
+            }
+
+            //Day.
+            if (!this.matchesDay(time.toLocalDate())) {
+                time = time.toLocalDate().plusDays(1).atStartOfDay();
+                continue;
+            }
+
+            //Hour.
+            int hour = nextBit(this.hours, time.getHour());
+            if (hour < 0) {
+                time = time.toLocalDate().plusDays(1).atStartOfDay();
+                continue;
+            } else if (hour != time.getHour()) {
+                time = time.toLocalDate().atTime(hour, 0);
+            }
+
+            //Minute.
+            int minute = nextBit(this.minutes, time.getMinute());
+            if (minute < 0) {
+                time = time.truncatedTo(ChronoUnit.HOURS).plusHours(1);
+                continue;
+            } else if (minute != time.getMinute()) {
+                time = time.withMinute(minute).withSecond(0);
+            }
+
+            //Second.
+            int second = nextBit(this.seconds, time.getSecond());
+            if (second < 0) {
+                time = time.truncatedTo(ChronoUnit.MINUTES).plusMinutes(1);
+                continue;
+            }
+            time = time.withSecond(second);
+
+            //Resolves local time in the zone. Gaps shift forward, overlaps resolve to the earlier offset.
+            ZonedDateTime result = ZonedDateTime.ofLocal(time, zone, null);
+            if (result.toInstant().isAfter(after))
+                return Optional.of(result);
+
+            //First occurrence of an overlap is already passed, it doesn't fire again.
+            time = time.plusSeconds(1);
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Gets if the date matches day of month and day of week fields.
+     *
+     * @param date Date.
+     * @return If the date matches or not.
+     */
+    private boolean matchesDay(@Nonnull LocalDate date) {
+        boolean day = has(this.days, date.getDayOfMonth());
+        boolean weekDay = has(this.weekDays, date.getDayOfWeek().getValue() % 7);
+        if (this.anyDay || this.anyWeekDay)
+            return day && weekDay;
+        return day || weekDay;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean equals(Object object) {
+        return object instanceof CronExpression cron && cron.expression.equals(this.expression);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int hashCode() {
+        return this.expression.hashCode();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String toString() {
+        return this.expression;
+    }
+
+
+    /*
+    PARSER
+     */
+
+    /**
+     * Gets if field matches everything or not.
+     *
+     * @param field Field.
+     * @return If field matches everything or not.
+     */
+    private static boolean isAny(@Nonnull String field) {
+        return field.equals("*") || field.equals("?");
+    }
+
+    /**
+     * Gets if bit is set or not.
+     *
+     * @param mask  Bit mask.
+     * @param value Value.
+     * @return If bit is set or not.
+     */
+    private static boolean has(long mask, int value) {
+        return (mask & (1L << value)) != 0;
+    }
+
+    /**
+     * Finds the first set bit starting from value.
+     *
+     * @param mask  Bit mask.
+     * @param value Value to start from.
+     * @return Next set bit, or -1 if there is none.
+     */
+    private static int nextBit(long mask, int value) {
+        long remaining = mask & (-1L << value);
+        return remaining == 0 ? -1 : Long.numberOfTrailingZeros(remaining);
+    }
+
+    /**
+     * Parses field into a bit mask.
+     *
+     * @param field Field.
+     * @param min   Minimum value.
+     * @param max   Maximum value.
+     * @param names Value names starting from minimum value. (Optional)
+     * @return Bit mask.
+     */
+    private static long parseField(@Nonnull String field, int min, int max, String[] names) {
+        long mask = 0;
+        for (String part : field.split(",")) {
+            //Declares step.
+            int step = 1;
+            int slash = part.indexOf('/');
+            if (slash >= 0) {
+                step = parseValue(part.substring(slash + 1), 1, max, null);
+                part = part.substring(0, slash);
+            }
+
+            //Declares range.
+            int from;
+            int to;
+            if (isAny(part)) {
+                from = min;
+                to = max;
+            } else if (part.indexOf('-') > 0) {
+                from = parseValue(part.substring(0, part.indexOf('-')), min, max, names);
+                to = parseValue(part.substring(part.indexOf('-') + 1), min, max, names);
+            } else {
+                from = parseValue(part, min, max, names);
+                to = slash >= 0 ? max : from;
+            }
+            if (from > to)
+                throw new IllegalArgumentException("cron field(" + field + ") has an invalid range!");
+
+            //Sets bits.
+            for (int value = from; value <= to; value += step)
+                mask |= 1L << value;
+        }
+        return mask;
+    }
+
+    /**
+     * Parses field value.
+     *
+     * @param value Value.
+     * @param min   Minimum value.
+     * @param max   Maximum value.
+     * @param names Value names starting from minimum value. (Optional)
+     * @return Value.
+     */
+    private static int parseValue(@Nonnull String value, int min, int max, String[] names) {
+        //Handles names.
+        if (names != null)
+            for (int i = 0; i < names.length; i++)
+                if (names[i].equalsIgnoreCase(value))
+                    return min + i;
+
+        //Handles numbers.
+        try {
+            int number = Integer.parseInt(value);
+            if (number < min || number > max)
+                throw new IllegalArgumentException("cron value(" + value + ") must be between " + min + " and " + max + "!");
+            return number;
+        } catch (NumberFormatException exception) {
+            throw new IllegalArgumentException("cron value(" + value + ") is not valid!", exception);
+        }
+    }
+}
@@ -0,0 +1,152 @@
+package com.barden.library.scheduler.cron;
+
+import com.barden.library.scheduler.SchedulerProvider;
+
+import javax.annotation.Nonnull;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.util.Objects;
+import java.util.PriorityQueue;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongConsumer;
+
+/**
+ * Cron scheduler class.
+ * Every cron entry shares a single timer slot which wakes up once a second,
+ * compares the wall clock with the earliest precomputed fire time and fires
+ * whatever is due.
+ * <p>
+ * Clock jumps: if the wall clock jumps forward, every missed fire time of an entry
+ * is collapsed into a single fire. If it jumps backward, already fired times do not
+ * fire again; entries wait until the clock reaches their next fire time.
+ */
+public final class CronScheduler {
+
+    private final ScheduledExecutorService timer;
+    private final PriorityQueue<Entry> entries = new PriorityQueue<>();
+    private ScheduledFuture<?> slot;
+
+    /**
+     * Creates cron scheduler object.
+     *
+     * @param timer Timer service to tick with.
+     */
+    public CronScheduler(@Nonnull ScheduledExecutorService timer) {
+        this.timer = Objects.requireNonNull(timer, "timer cannot be null!");
+    }
+
+    /**
+     * Gets scheduled entry count.
+     *
+     * @return Scheduled entry count.
+     */
+    public synchronized int getEntries() {
+        return this.entries.size();
+    }
+
+    /**
+     * Schedules cron entry.
+     *
+     * @param expression Cron expression.
+     * @param zone       Time zone.
+     * @param runnable   Fire consumer. It accepts lateness of the fire in nanoseconds and runs on the timer thread.
+     * @param handle     Entry handle. Once it is done or cancelled, entry is removed.
+     * @return {@code true} if entry is scheduled, {@code false} if expression never fires.
+     */
+    public synchronized boolean schedule(@Nonnull CronExpression expression, @Nonnull ZoneId zone, @Nonnull LongConsumer runnable, @Nonnull Future<?> handle) {
+        //Creates entry.
+        Entry entry = new Entry(expression, zone, runnable, handle);
+        if (!entry.next(Instant.now()))
+            return false;
+        this.entries.add(entry);
+
+        //Starts shared timer slot with the first entry.
+        if (this.slot == null)
+            this.slot = this.timer.scheduleAtFixedRate(this::tick, 1000 - System.currentTimeMillis() % 1000, 1000, TimeUnit.MILLISECONDS);
+        return true;
+    }
+
+    /**
+     * Stops cron scheduler.
+     * Drops entries and releases timer slot.
+     */
+    public synchronized void stop() {
+        this.entries.clear();
+        if (this.slot != null) {
+            this.slot.cancel(false);
+            this.slot = null;
+        }
+    }
+
+    /**
+     * Ticks cron scheduler.
+     */
+    private synchronized void tick() {
+        Instant now = Instant.now();
+        long millis = now.toEpochMilli();
+
+        //Fires due entries.
+        Entry entry;
+        while ((entry = this.entries.peek()) != null && entry.fire <= millis) {
+            this.entries.poll();
+
+            //If entry is cancelled, drops it.
+            if (entry.handle.isDone())
+                continue;
+
+            //Fires entry.
+            try {
+                entry.runnable.accept(TimeUnit.MILLISECONDS.toNanos(millis - entry.fire));
+            } catch (Exception exception) {
+                SchedulerProvider.getLogger().error("Couldn't fire cron(" + entry.expression + ")!", exception);
+            }
+
+            //Calculates next fire time from now, so missed fire times collapse into this one.
+            if (entry.next(now))
+                this.entries.add(entry);
+        }
+
+        //If there is no entry left, releases timer slot.
+        if (this.entries.isEmpty() && this.slot != null) {
+            this.slot.cancel(false);
+            this.slot = null;
+        }
+    }
+
+    /**
+     * Cron entry.
+     */
+    private static final class Entry implements Comparable<Entry> {
+
+        private final CronExpression expression;
+        private final ZoneId zone;
+        private final LongConsumer runnable;
+        private final Future<?> handle;
+        private long fire;
+
+        private Entry(@Nonnull CronExpression expression, @Nonnull ZoneId zone, @Nonnull LongConsumer runnable, @Nonnull Future<?> handle) {
+            this.expression = Objects.requireNonNull(expression, "expression cannot be null!");
+            this.zone = Objects.requireNonNull(zone, "zone cannot be null!");
+            this.runnable = Objects.requireNonNull(runnable, "runnable cannot be null!");
+            this.handle = Objects.requireNonNull(handle, "handle cannot be null!");
+        }
+
+        /**
+         * Calculates next fire time.
+         *
+         * @param after Time to search after.
+         * @return If there is a next fire time or not.
+         */
+        private boolean next(@Nonnull Instant after) {
+            return this.expression.next(after, this.zone).map(time -> this.fire = time.toInstant().toEpochMilli()).isPresent();
+        }
+
+        @Override
+        public int compareTo(@Nonnull Entry entry) {
+            return Long.compare(this.fire, entry.fire);
+        }
+    }
+}
@@ -0,0 +1,352 @@
+package com.barden.library.scheduler.durable;
+
+import com.barden.library.BardenJavaLibrary;
+import com.barden.library.database.DatabaseProvider;
+import com.barden.library.database.redis.RedisScript;
+import com.barden.library.scheduler.SchedulerProvider;
+import com.barden.library.scheduler.task.Task;
+import redis.clients.jedis.Jedis;
+import redis.clients.jedis.Pipeline;
+
+import javax.annotation.Nonnull;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Durable scheduler class.
+ * Delayed tasks are stored in a redis sorted set scored by their due time, so they
+ * survive restarts and run on whichever node claims them first.
+ * <p>
+ * Due tasks are claimed in batches by a Lua script which moves them into a processing
+ * set atomically. Once a handler finishes successfully, the task is acknowledged and
+ * deleted. If a handler fails, or a node dies before acknowledging, the task becomes due
+ * again after the visibility timeout, so tasks run at least once and handlers should
+ * be idempotent.
+ */
+public final class DurableScheduler {
+
+    /**
+     * Key prefix of durable schedulers.
+     */
+    public static final String KEY_PREFIX = "barden:durable:";
+
+    private static final RedisScript SCHEDULE = new RedisScript(
+            "redis.call('hset', KEYS[2], ARGV[1], ARGV[3]) " +
+                    "redis.call('zadd', KEYS[1], ARGV[2], ARGV[1]) " +
+                    "return 1");
+    private static final RedisScript CANCEL = new RedisScript(
+            "if redis.call('zrem', KEYS[1], ARGV[1]) == 1 then return redis.call('hdel', KEYS[2], ARGV[1]) else return 0 end");
+    private static final RedisScript CLAIM = new RedisScript(
+            "local ids = redis.call('zrangebyscore', KEYS[1], '-inf', ARGV[1], 'LIMIT', 0, ARGV[2]) " +
+                    "if #ids == 0 then return {} end " +
+                    "redis.call('zrem', KEYS[1], unpack(ids)) " +
+                    "local result = {} " +
+                    "for _, id in ipairs(ids) do " +
+                    "redis.call('zadd', KEYS[2], ARGV[3], id) " +
+                    "result[#result + 1] = id " +
+                    "result[#result + 1] = redis.call('hget', KEYS[3], id) or '' " +
+                    "end " +
+                    "return result");
+    private static final RedisScript RECOVER = new RedisScript(
+            "local ids = redis.call('zrangebyscore', KEYS[1], '-inf', ARGV[1], 'LIMIT', 0, ARGV[2]) " +
+                    "if #ids == 0 then return 0 end " +
+                    "redis.call('zrem', KEYS[1], unpack(ids)) " +
+                    "for _, id in ipairs(ids) do redis.call('zadd', KEYS[2], ARGV[1], id) end " +
+                    "return #ids");
+
+    private final String name;
+    private final String dueKey;
+    private final String processingKey;
+    private final String payloadKey;
+
+    private final Map<String, Consumer<String>> handlers = new ConcurrentHashMap<>();
+    private final Queue<String> acknowledgements = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger running = new AtomicInteger();
+
+    private int batch = 1000;
+    private long interval = 100;
+    private long visibility = TimeUnit.MINUTES.toMillis(1);
+    private Task task;
+
+    /**
+     * Creates durable scheduler object.
+     *
+     * @param name Scheduler name. Nodes with the same name share the same tasks.
+     */
+    public DurableScheduler(@Nonnull String name) {
+        this.name = Objects.requireNonNull(name, "name cannot be null!");
+        this.dueKey = KEY_PREFIX + name;
+        this.processingKey = this.dueKey + ":processing";
+        this.payloadKey = this.dueKey + ":payloads";
+    }
+
+    /**
+     * Gets name.
+     *
+     * @return Scheduler name.
+     */
+    @Nonnull
+    public String getName() {
+        return this.name;
+    }
+
+    /**
+     * Sets claim batch size.
+     *
+     * @param batch Maximum tasks claimed with a single script call.
+     * @return Durable scheduler.
+     */
+    @Nonnull
+    public DurableScheduler batch(int batch) {
+        if (batch <= 0)
+            throw new IllegalArgumentException("batch must be positive!");
+        this.batch = batch;
+        return this;
+    }
+
+    /**
+     * Sets poll interval.
+     * If a poll claims a full batch, it polls again right away.
+     *
+     * @param time Time.
+     * @param unit Time unit.
+     * @return Durable scheduler.
+     */
+    @Nonnull
+    public DurableScheduler interval(long time, @Nonnull TimeUnit unit) {
+        this.interval = Math.max(Objects.requireNonNull(unit, "time unit cannot be null!").toMillis(time), 1);
+        return this;
+    }
+
+    /**
+     * Sets visibility timeout.
+     * If a claimed task is not acknowledged within it, task becomes due again.
+     *
+     * @param time Time.
+     * @param unit Time unit.
+     * @return Durable scheduler.
+     */
+    @Nonnull
+    public DurableScheduler visibility(long time, @Nonnull TimeUnit unit) {
+        this.visibility = Objects.requireNonNull(unit, "time unit cannot be null!").toMillis(time);
+        return this;
+    }
+
+    /**
+     * Registers handler.
+     *
+     * @param type    Task type.
+     * @param handler Handler which accepts task payload.
+     * @return Durable scheduler.
+     */
+    @Nonnull
+    public DurableScheduler register(@Nonnull String type, @Nonnull Consumer<String> handler) {
+        this.handlers.put(Objects.requireNonNull(type, "type cannot be null!"), Objects.requireNonNull(handler, "handler cannot be null!"));
+        return this;
+    }
+
+    /**
+     * Unregisters handler.
+     *
+     * @param type Task type.
+     */
+    public void unregister(@Nonnull String type) {
+        this.handlers.remove(Objects.requireNonNull(type, "type cannot be null!"));
+    }
+
+    /**
+     * Schedules durable task.
+     *
+     * @param type    Task type.
+     * @param payload Task payload.
+     * @param delay   Delay.
+     * @param unit    Time unit.
+     * @return Task id.
+     */
+    @Nonnull
+    public String schedule(@Nonnull String type, @Nonnull String payload, long delay, @Nonnull TimeUnit unit) {
+        return this.schedule(type, payload, Instant.now().plusMillis(Objects.requireNonNull(unit, "time unit cannot be null!").toMillis(delay)));
+    }
+
+    /**
+     * Schedules durable task.
+     *
+     * @param type    Task type.
+     * @param payload Task payload.
+     * @param due     Due time.
+     * @return Task id.
+     */
+    @Nonnull
+    public String schedule(@Nonnull String type, @Nonnull String payload, @Nonnull Instant due) {
+        //Objects null check.
+        Objects.requireNonNull(type, "type cannot be null!");
+        Objects.requireNonNull(payload, "payload cannot be null!");
+        Objects.requireNonNull(due, "due cannot be null!");
+        if (type.indexOf('\n') >= 0)
+            throw new IllegalArgumentException("type cannot contain new line!");
+
+        //Stores payload and due time together.
+        String id = UUID.randomUUID().toString();
+        try (Jedis jedis = DatabaseProvider.redis().getClient().getResource()) {
+            SCHEDULE.eval(jedis, List.of(this.dueKey, this.payloadKey), List.of(id, String.valueOf(due.toEpochMilli()), type + "\n" + payload));
+        }
+        return id;
+    }
+
+    /**
+     * Cancels durable task if it is not claimed yet.
+     *
+     * @param id Task id.
+     * @return If task is cancelled or not.
+     */
+    public boolean cancel(@Nonnull String id) {
+        Objects.requireNonNull(id, "id cannot be null!");
+        try (Jedis jedis = DatabaseProvider.redis().getClient().getResource()) {
+            return Long.valueOf(1).equals(CANCEL.eval(jedis, List.of(this.dueKey, this.payloadKey), List.of(id)));
+        }
+    }
+
+    /**
+     * Starts polling due tasks.
+     *
+     * @return Durable scheduler.
+     */
+    @Nonnull
+    public synchronized DurableScheduler start() {
+        //If it is already started, no need to continue.
+        if (this.task != null)
+            return this;
+
+        //Polls due tasks until stopped.
+        this.task = SchedulerProvider.create()
+                .name("durable(" + this.name + ")")
+                .every(this.interval, TimeUnit.MILLISECONDS)
+                .schedule(task -> this.poll());
+        return this;
+    }
+
+    /**
+     * Stops polling due tasks.
+     * Waits for running handlers up to the visibility timeout, so their tasks are acknowledged.
+     * Claimed but not acknowledged tasks become due again after the visibility timeout.
+     */
+    public synchronized void stop() {
+        //If it is not started, no need to continue.
+        if (this.task == null)
+            return;
+
+        //Cancels poll task.
+        this.task.cancel();
+        this.task = null;
+
+        //Waits for running handlers. Ones which outlive the visibility timeout run again on another node anyway.
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(this.visibility);
+        while (this.running.get() > 0 && deadline - System.nanoTime() > 0) {
+            try {
+                Thread.sleep(1);
+            } catch (InterruptedException exception) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+
+        //Acknowledges finished tasks.
+        try (Jedis jedis = DatabaseProvider.redis().getClient().getResource()) {
+            this.acknowledge(jedis);
+        } catch (Exception exception) {
+            BardenJavaLibrary.getLogger().error("Couldn't acknowledge durable(" + this.name + ") tasks!", exception);
+        }
+    }
+
+    /**
+     * Polls due tasks.
+     */
+    @SuppressWarnings("unchecked")
+    private void poll() {
+        try (Jedis jedis = DatabaseProvider.redis().getClient().getResource()) {
+            //Acknowledges finished tasks.
+            this.acknowledge(jedis);
+
+            //Moves tasks whose claimer didn't acknowledge in time back to due tasks.
+            long now = System.currentTimeMillis();
+            RECOVER.eval(jedis, List.of(this.processingKey, this.dueKey), List.of(String.valueOf(now), String.valueOf(this.batch)));
+
+            //Claims due tasks batch by batch.
+            List<String> claimed;
+            do {
+                claimed = (List<String>) CLAIM.eval(jedis, List.of(this.dueKey, this.processingKey, this.payloadKey),
+                        List.of(String.valueOf(now), String.valueOf(this.batch), String.valueOf(now + this.visibility)));
+                for (int i = 0; i < claimed.size(); i += 2)
+                    this.dispatch(claimed.get(i), claimed.get(i + 1));
+            } while (claimed.size() / 2 == this.batch);
+        } catch (Exception exception) {
+            BardenJavaLibrary.getLogger().error("Couldn't poll durable(" + this.name + ") tasks!", exception);
+        }
+    }
+
+    /**
+     * Dispatches claimed task to its handler.
+     *
+     * @param id   Task id.
+     * @param data Task type and payload.
+     */
+    private void dispatch(@Nonnull String id, @Nonnull String data) {
+        //Declares type and payload.
+        int separator = data.indexOf('\n');
+        String type = separator < 0 ? data : data.substring(0, separator);
+        String payload = separator < 0 ? "" : data.substring(separator + 1);
+
+        //If this node doesn't handle the type, leaves it to be recovered by another node.
+        Consumer<String> handler = this.handlers.get(type);
+        if (handler == null) {
+            BardenJavaLibrary.getLogger().warn("There is no durable(" + this.name + ") handler for type(" + type + ")!");
+            return;
+        }
+
+        //Runs handler on the worker pool. Failed tasks are not acknowledged, they are retried after the visibility timeout.
+        this.running.incrementAndGet();
+        try {
+            BardenJavaLibrary.getScheduler().getService().execute(() -> {
+                try {
+                    handler.accept(payload);
+                    this.acknowledgements.offer(id);
+                } catch (Exception exception) {
+                    BardenJavaLibrary.getLogger().error("Couldn't run durable(" + this.name + ") task(" + id + ") of type(" + type + ")!", exception);
+                } finally {
+                    this.running.decrementAndGet();
+                }
+            });
+        } catch (RejectedExecutionException exception) {
+            this.running.decrementAndGet();
+            throw exception;
+        }
+    }
+
+    /**
+     * Acknowledges finished tasks.
+     *
+     * @param jedis Jedis resource.
+     */
+    private void acknowledge(@Nonnull Jedis jedis) {
+        //Collects finished task ids.
+        List<String> ids = new ArrayList<>();
+        String id;
+        while ((id = this.acknowledgements.poll()) != null)
+            ids.add(id);
+        if (ids.isEmpty())
+            return;
+
+        //Deletes them with a single round trip.
+        String[] array = ids.toArray(new String[0]);
+        Pipeline pipeline = jedis.pipelined();
+        pipeline.zrem(this.processingKey, array);
+        pipeline.hdel(this.payloadKey, array);
+        pipeline.sync();
+    }
+}
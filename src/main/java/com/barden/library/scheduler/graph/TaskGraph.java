@@ -0,0 +1,180 @@
+package com.barden.library.scheduler.graph;
+
+import com.barden.library.scheduler.SchedulerProvider;
+import com.barden.library.scheduler.task.Task;
+
+import javax.annotation.Nonnull;
+import java.util.*;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+
+/**
+ * Task graph class.
+ * Nodes are tasks with dependencies. Nodes run as soon as all of their dependencies
+ * are finished, so independent branches run in parallel on the worker pool.
+ * If a node fails, all of its dependents are cancelled.
+ */
+public final class TaskGraph {
+
+    /**
+     * Creates new task graph.
+     *
+     * @return Task graph.
+     */
+    @Nonnull
+    public static TaskGraph create() {
+        return new TaskGraph();
+    }
+
+    private final Map<String, TaskGraphNode> nodes = new LinkedHashMap<>();
+
+    /**
+     * Gets nodes.
+     *
+     * @return Nodes.
+     */
+    @Nonnull
+    public Collection<TaskGraphNode> getNodes() {
+        return Collections.unmodifiableCollection(this.nodes.values());
+    }
+
+    /**
+     * Adds node.
+     *
+     * @param name         Node name.
+     * @param consumer     Task consumer.
+     * @param dependencies Names of nodes to wait for.
+     * @return Task graph.
+     */
+    @Nonnull
+    public TaskGraph node(@Nonnull String name, @Nonnull Consumer<Task> consumer, @Nonnull String... dependencies) {
+        //Objects null check.
+        Objects.requireNonNull(name, "name cannot be null!");
+        Objects.requireNonNull(consumer, "consumer cannot be null!");
+        Objects.requireNonNull(dependencies, "dependencies cannot be null!");
+
+        //If node is already exist, throws error.
+        if (this.nodes.containsKey(name))
+            throw new IllegalArgumentException("node(" + name + ") is already exist!");
+
+        //Adds node to the map.
+        this.nodes.put(name, new TaskGraphNode(name, consumer, List.of(dependencies)));
+        return this;
+    }
+
+    /**
+     * Executes task graph.
+     * Returned future completes once every node finishes, or exceptionally if any
+     * node fails. Cancelling returned future cancels nodes which are not started yet.
+     *
+     * @return Completable future.
+     */
+    @Nonnull
+    public CompletableFuture<Void> execute() {
+        //Runs nodes in dependency order so dependency futures are always created first.
+        Map<String, CompletableFuture<Void>> futures = new HashMap<>();
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        for (TaskGraphNode node : this.sort()) {
+            //Declares node future and the future of its dependencies.
+            CompletableFuture<Void> future = new CompletableFuture<>();
+            CompletableFuture<?>[] dependencies = node.getDependencies().stream().map(futures::get).toArray(CompletableFuture[]::new);
+            CompletableFuture<Void> ready = dependencies.length == 0 ? CompletableFuture.completedFuture(null) : CompletableFuture.allOf(dependencies);
+
+            //Runs node once dependencies are done.
+            ready.whenComplete((ignored, error) -> {
+                //If any dependency failed, cancels node.
+                if (error != null) {
+                    future.cancel(false);
+                    return;
+                }
+
+                //If graph is cancelled meanwhile, no need to continue.
+                if (future.isDone())
+                    return;
+
+                //Schedules node task. Node name is the task name, so node runs show up in task metrics.
+                SchedulerProvider.create().name(node.getName()).schedule(task -> {
+                    //If graph is cancelled meanwhile, no need to continue.
+                    if (future.isDone())
+                        return;
+
+                    //Handles errors. Errors are caught too, otherwise the graph would never complete.
+                    try {
+                        node.getConsumer().accept(task);
+                        future.complete(null);
+                    } catch (Throwable exception) {
+                        failure.compareAndSet(null, exception);
+                        future.completeExceptionally(exception);
+
+                        //Rethrows it, so the task logs it and records the run as failed.
+                        if (exception instanceof RuntimeException runtime)
+                            throw runtime;
+                        throw new IllegalStateException("Couldn't run task graph node(" + node.getName() + ")!", exception);
+                    }
+                });
+            });
+
+            //Adds node future to the map.
+            futures.put(node.getName(), future);
+        }
+
+        //Declares graph future.
+        CompletableFuture<Void> result = new CompletableFuture<>();
+        CompletableFuture.allOf(futures.values().toArray(CompletableFuture[]::new)).whenComplete((ignored, error) -> {
+            //Dependents of a failed node are cancelled, so the first failure is reported instead of any cancellation.
+            if (error == null)
+                result.complete(null);
+            else if (failure.get() != null)
+                result.completeExceptionally(failure.get());
+            else
+                result.completeExceptionally(error instanceof CancellationException ? error : error.getCause() != null ? error.getCause() : error);
+        });
+
+        //If graph future is cancelled, cancels remaining nodes.
+        result.whenComplete((ignored, error) -> {
+            if (result.isCancelled())
+                futures.values().forEach(future -> future.cancel(false));
+        });
+        return result;
+    }
+
+    /**
+     * Sorts nodes topologically.
+     *
+     * @return Sorted nodes.
+     */
+    @Nonnull
+    private List<TaskGraphNode> sort() {
+        //Declares in-degrees and dependents.
+        Map<String, Integer> degrees = new HashMap<>();
+        Map<String, List<TaskGraphNode>> dependents = new HashMap<>();
+        for (TaskGraphNode node : this.nodes.values()) {
+            degrees.put(node.getName(), node.getDependencies().size());
+            for (String dependency : node.getDependencies()) {
+                if (!this.nodes.containsKey(dependency))
+                    throw new IllegalArgumentException("node(" + node.getName() + ") dependency(" + dependency + ") doesn't exist!");
+                dependents.computeIfAbsent(dependency, key -> new ArrayList<>()).add(node);
+            }
+        }
+
+        //Handles nodes without dependency first.
+        Deque<TaskGraphNode> queue = new ArrayDeque<>();
+        this.nodes.values().stream().filter(node -> node.getDependencies().isEmpty()).forEach(queue::add);
+
+        List<TaskGraphNode> sorted = new ArrayList<>(this.nodes.size());
+        while (!queue.isEmpty()) {
+            TaskGraphNode node = queue.poll();
+            sorted.add(node);
+            for (TaskGraphNode dependent : dependents.getOrDefault(node.getName(), List.of()))
+                if (degrees.merge(dependent.getName(), -1, Integer::sum) == 0)
+                    queue.add(dependent);
+        }
+
+        //If some nodes couldn't be sorted, there is a cycle.
+        if (sorted.size() != this.nodes.size())
+            throw new IllegalStateException("task graph has a dependency cycle!");
+        return sorted;
+    }
+}
@@ -0,0 +1,61 @@
+package com.barden.library.scheduler.graph;
+
+import com.barden.library.scheduler.task.Task;
+
+import javax.annotation.Nonnull;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Consumer;
+
+/**
+ * Task graph node class.
+ */
+public final class TaskGraphNode {
+
+    private final String name;
+    private final Consumer<Task> consumer;
+    private final List<String> dependencies;
+
+    /**
+     * Creates task graph node object.
+     *
+     * @param name         Node name.
+     * @param consumer     Task consumer.
+     * @param dependencies Names of nodes to wait for.
+     */
+    public TaskGraphNode(@Nonnull String name, @Nonnull Consumer<Task> consumer, @Nonnull List<String> dependencies) {
+        this.name = Objects.requireNonNull(name, "name cannot be null!");
+        this.consumer = Objects.requireNonNull(consumer, "consumer cannot be null!");
+        this.dependencies = List.copyOf(Objects.requireNonNull(dependencies, "dependencies cannot be null!"));
+    }
+
+    /**
+     * Gets name.
+     *
+     * @return Node name.
+     */
+    @Nonnull
+    public String getName() {
+        return this.name;
+    }
+
+    /**
+     * Gets consumer.
+     *
+     * @return Task consumer.
+     */
+    @Nonnull
+    public Consumer<Task> getConsumer() {
+        return this.consumer;
+    }
+
+    /**
+     * Gets dependencies.
+     *
+     * @return Names of nodes to wait for.
+     */
+    @Nonnull
+    public List<String> getDependencies() {
+        return this.dependencies;
+    }
+}
@@ -0,0 +1,167 @@
+package com.barden.library.scheduler.lane;
+
+import com.barden.library.scheduler.SchedulerProvider;
+
+import javax.annotation.Nonnull;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Lane class.
+ * Runs submitted runnables one by one, in submission order, on a shared executor.
+ * A lane holds no thread; it only drains its own queue while it has pending work
+ * and retires itself from the owner map once it becomes idle.
+ * <p>
+ * If the executor rejects the lane, e.g. while it is shutting down, the lane is drained
+ * on the calling thread instead, so accepted runnables are never lost.
+ */
+public final class Lane {
+
+    /**
+     * Maximum runnables drained in a row before the lane yields its worker thread.
+     */
+    private static final int DRAIN_LIMIT = 64;
+    private static final int RETIRED = -1;
+
+    private final Object key;
+    private final Map<Object, Lane> lanes;
+    private final Executor executor;
+
+    private final Queue<Runnable> queue = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger pending = new AtomicInteger();
+    private final Runnable drainer = this::drain;
+
+    /**
+     * Creates lane object.
+     *
+     * @param key      Lane key.
+     * @param lanes    Lanes map which owns the lane.
+     * @param executor Executor to drain the lane on.
+     */
+    public Lane(@Nonnull Object key, @Nonnull Map<Object, Lane> lanes, @Nonnull Executor executor) {
+        this.key = Objects.requireNonNull(key, "key cannot be null!");
+        this.lanes = Objects.requireNonNull(lanes, "lanes cannot be null!");
+        this.executor = Objects.requireNonNull(executor, "executor cannot be null!");
+    }
+
+    /**
+     * Gets key.
+     *
+     * @return Lane key.
+     */
+    @Nonnull
+    public Object getKey() {
+        return this.key;
+    }
+
+    /**
+     * Gets pending runnable count.
+     *
+     * @return Pending runnable count.
+     */
+    public int getPending() {
+        return Math.max(this.pending.get(), 0);
+    }
+
+    /**
+     * Gets if lane is retired or not.
+     * Retired lanes do not accept new runnables.
+     *
+     * @return If lane is retired or not.
+     */
+    public boolean isRetired() {
+        return this.pending.get() == RETIRED;
+    }
+
+    /**
+     * Gets queued runnables which haven't started yet.
+     *
+     * @return Copy of queued runnables.
+     */
+    @Nonnull
+    public List<Runnable> getQueued() {
+        return new ArrayList<>(this.queue);
+    }
+
+    /**
+     * Offers runnable to the lane.
+     *
+     * @param runnable Runnable.
+     * @return {@code true} if runnable is accepted, {@code false} if lane is already retired.
+     */
+    public boolean offer(@Nonnull Runnable runnable) {
+        //Objects null check.
+        Objects.requireNonNull(runnable, "runnable cannot be null!");
+
+        //Reserves a slot unless the lane is already retired.
+        int count;
+        do {
+            count = this.pending.get();
+            if (count == RETIRED)
+                return false;
+        } while (!this.pending.compareAndSet(count, count + 1));
+
+        //Queues runnable.
+        this.queue.offer(runnable);
+
+        //The producer which wakes the lane up is responsible for draining it.
+        if (count == 0)
+            this.schedule();
+        return true;
+    }
+
+    /**
+     * Schedules drainer of the lane, drains on the calling thread if executor rejects it.
+     */
+    private void schedule() {
+        try {
+            this.executor.execute(this.drainer);
+        } catch (RejectedExecutionException exception) {
+            this.drain();
+        }
+    }
+
+    /**
+     * Drains lane.
+     */
+    private void drain() {
+        for (int drained = 1; ; drained++) {
+            //Slot is reserved before the runnable is queued, waits for it.
+            Runnable runnable;
+            while ((runnable = this.queue.poll()) == null)
+                Thread.onSpinWait();
+
+            //Handles errors. Errors are caught too, otherwise the lane would never be drained again.
+            try {
+                runnable.run();
+            } catch (Throwable exception) {
+                SchedulerProvider.getLogger().error("Couldn't run lane(" + this.key + ") runnable!", exception);
+            }
+
+            //If there is no pending runnable, lane is idle.
+            if (this.pending.decrementAndGet() == 0)
+                break;
+
+            //Yields worker thread to be fair with other lanes. If executor rejects it, keeps draining.
+            if (drained == DRAIN_LIMIT) {
+                try {
+                    this.executor.execute(this.drainer);
+                    return;
+                } catch (RejectedExecutionException exception) {
+                    drained = 0;
+                }
+            }
+        }
+
+        //If no one woke the lane up meanwhile, retires it. Otherwise, new drainer is already scheduled.
+        if (this.pending.compareAndSet(0, RETIRED))
+            this.lanes.remove(this.key, this);
+    }
+}
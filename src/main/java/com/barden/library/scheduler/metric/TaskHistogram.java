@@ -0,0 +1,89 @@
+package com.barden.library.scheduler.metric;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Task histogram class.
+ * Records nanosecond durations into power of two buckets, so recording
+ * is a couple of atomic increments without any allocation or lock.
+ */
+public final class TaskHistogram {
+
+    private final AtomicLongArray buckets = new AtomicLongArray(64);
+    private final LongAdder count = new LongAdder();
+    private final LongAdder total = new LongAdder();
+    private final LongAccumulator max = new LongAccumulator(Long::max, 0);
+
+    /**
+     * Records duration.
+     *
+     * @param nanos Duration in nanoseconds. Negative durations are recorded as zero.
+     */
+    public void record(long nanos) {
+        long value = Math.max(nanos, 0);
+        this.buckets.incrementAndGet(64 - Long.numberOfLeadingZeros(value) - (value == 0 ? 0 : 1));
+        this.count.increment();
+        this.total.add(value);
+        this.max.accumulate(value);
+    }
+
+    /**
+     * Gets recorded duration count.
+     *
+     * @return Recorded duration count.
+     */
+    public long getCount() {
+        return this.count.sum();
+    }
+
+    /**
+     * Gets mean duration.
+     *
+     * @return Mean duration in milliseconds.
+     */
+    public double getMean() {
+        long count = this.count.sum();
+        return count == 0 ? 0 : this.total.sum() / (double) count / 1_000_000.0D;
+    }
+
+    /**
+     * Gets max duration.
+     *
+     * @return Max duration in milliseconds.
+     */
+    public double getMax() {
+        return this.max.get() / 1_000_000.0D;
+    }
+
+    /**
+     * Gets percentile duration.
+     * Result is the upper bound of the bucket the percentile falls in.
+     *
+     * @param percentile Percentile between 0 and 1.
+     * @return Percentile duration in milliseconds.
+     */
+    public double getPercentile(double percentile) {
+        if (percentile < 0 || percentile > 1)
+            throw new IllegalArgumentException("percentile must be between 0 and 1!");
+
+        //Copies buckets, since they may change meanwhile.
+        long[] buckets = new long[64];
+        long count = 0;
+        for (int i = 0; i < buckets.length; i++)
+            count += buckets[i] = this.buckets.get(i);
+        if (count == 0)
+            return 0;
+
+        //Finds bucket of the percentile.
+        long rank = (long) Math.ceil(percentile * count);
+        long seen = 0;
+        for (int i = 0; i < buckets.length; i++) {
+            seen += buckets[i];
+            if (seen >= Math.max(rank, 1))
+                return Math.min(i == 63 ? Long.MAX_VALUE : (1L << (i + 1)) - 1, this.max.get()) / 1_000_000.0D;
+        }
+        return this.getMax();
+    }
+}
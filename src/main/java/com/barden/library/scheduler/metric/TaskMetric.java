@@ -0,0 +1,101 @@
+package com.barden.library.scheduler.metric;
+
+import javax.annotation.Nonnull;
+import java.util.Objects;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Task metric class.
+ * Aggregates every run of the tasks with the same name.
+ */
+public final class TaskMetric {
+
+    private final String name;
+    private final TaskHistogram wait = new TaskHistogram();
+    private final TaskHistogram execution = new TaskHistogram();
+    private final LongAdder failures = new LongAdder();
+    private final LongAdder skips = new LongAdder();
+
+    /**
+     * Creates task metric object.
+     *
+     * @param name Task name.
+     */
+    public TaskMetric(@Nonnull String name) {
+        this.name = Objects.requireNonNull(name, "name cannot be null!");
+    }
+
+    /**
+     * Gets name.
+     *
+     * @return Task name.
+     */
+    @Nonnull
+    public String getName() {
+        return this.name;
+    }
+
+    /**
+     * Gets wait histogram.
+     * Wait is the time between the scheduled start and the actual start of a run.
+     *
+     * @return Wait histogram.
+     */
+    @Nonnull
+    public TaskHistogram getWait() {
+        return this.wait;
+    }
+
+    /**
+     * Gets execution histogram.
+     *
+     * @return Execution histogram.
+     */
+    @Nonnull
+    public TaskHistogram getExecution() {
+        return this.execution;
+    }
+
+    /**
+     * Records a run.
+     *
+     * @param wait      Wait in nanoseconds.
+     * @param execution Execution time in nanoseconds.
+     * @param failed    If run failed or not.
+     */
+    public void record(long wait, long execution, boolean failed) {
+        this.wait.record(wait);
+        this.execution.record(execution);
+        if (failed)
+            this.failures.increment();
+    }
+
+    /**
+     * Records a skipped run.
+     * Runs are skipped when the previous run of a repeating task is still in progress.
+     */
+    public void skip() {
+        this.skips.increment();
+    }
+
+    /**
+     * Creates snapshot of the metric.
+     *
+     * @return Task metric snapshot.
+     */
+    @Nonnull
+    public TaskMetricSnapshot snapshot() {
+        return new TaskMetricSnapshot(
+                this.name,
+                this.execution.getCount(),
+                this.failures.sum(),
+                this.skips.sum(),
+                this.wait.getMean(),
+                this.wait.getPercentile(0.99D),
+                this.wait.getMax(),
+                this.execution.getMean(),
+                this.execution.getPercentile(0.5D),
+                this.execution.getPercentile(0.99D),
+                this.execution.getMax());
+    }
+}
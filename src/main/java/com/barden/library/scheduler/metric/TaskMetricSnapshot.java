@@ -0,0 +1,155 @@
+package com.barden.library.scheduler.metric;
+
+import javax.annotation.Nonnull;
+import java.beans.ConstructorProperties;
+import java.util.Objects;
+
+/**
+ * Task metric snapshot class.
+ * Durations are in milliseconds.
+ */
+public final class TaskMetricSnapshot {
+
+    private final String name;
+    private final long runs;
+    private final long failures;
+    private final long skips;
+    private final double waitMean;
+    private final double waitP99;
+    private final double waitMax;
+    private final double executionMean;
+    private final double executionP50;
+    private final double executionP99;
+    private final double executionMax;
+
+    /**
+     * Creates task metric snapshot object.
+     *
+     * @param name          Task name.
+     * @param runs          Run count.
+     * @param failures      Failed run count.
+     * @param skips         Skipped run count.
+     * @param waitMean      Mean wait.
+     * @param waitP99       99th percentile wait.
+     * @param waitMax       Max wait.
+     * @param executionMean Mean execution time.
+     * @param executionP50  Median execution time.
+     * @param executionP99  99th percentile execution time.
+     * @param executionMax  Max execution time.
+     */
+    @ConstructorProperties({"name", "runs", "failures", "skips", "waitMean", "waitP99", "waitMax", "executionMean", "executionP50", "executionP99", "executionMax"})
+    public TaskMetricSnapshot(@Nonnull String name, long runs, long failures, long skips, double waitMean, double waitP99, double waitMax,
+                              double executionMean, double executionP50, double executionP99, double executionMax) {
+        this.name = Objects.requireNonNull(name, "name cannot be null!");
+        this.runs = runs;
+        this.failures = failures;
+        this.skips = skips;
+        this.waitMean = waitMean;
+        this.waitP99 = waitP99;
+        this.waitMax = waitMax;
+        this.executionMean = executionMean;
+        this.executionP50 = executionP50;
+        this.executionP99 = executionP99;
+        this.executionMax = executionMax;
+    }
+
+    /**
+     * Gets name.
+     *
+     * @return Task name.
+     */
+    @Nonnull
+    public String getName() {
+        return this.name;
+    }
+
+    /**
+     * Gets run count.
+     *
+     * @return Run count.
+     */
+    public long getRuns() {
+        return this.runs;
+    }
+
+    /**
+     * Gets failed run count.
+     *
+     * @return Failed run count.
+     */
+    public long getFailures() {
+        return this.failures;
+    }
+
+    /**
+     * Gets skipped run count.
+     *
+     * @return Skipped run count.
+     */
+    public long getSkips() {
+        return this.skips;
+    }
+
+    /**
+     * Gets mean wait.
+     *
+     * @return Mean wait.
+     */
+    public double getWaitMean() {
+        return this.waitMean;
+    }
+
+    /**
+     * Gets 99th percentile wait.
+     *
+     * @return 99th percentile wait.
+     */
+    public double getWaitP99() {
+        return this.waitP99;
+    }
+
+    /**
+     * Gets max wait.
+     *
+     * @return Max wait.
+     */
+    public double getWaitMax() {
+        return this.waitMax;
+    }
+
+    /**
+     * Gets mean execution time.
+     *
+     * @return Mean execution time.
+     */
+    public double getExecutionMean() {
+        return this.executionMean;
+    }
+
+    /**
+     * Gets median execution time.
+     *
+     * @return Median execution time.
+     */
+    public double getExecutionP50() {
+        return this.executionP50;
+    }
+
+    /**
+     * Gets 99th percentile execution time.
+     *
+     * @return 99th percentile execution time.
+     */
+    public double getExecutionP99() {
+        return this.executionP99;
+    }
+
+    /**
+     * Gets max execution time.
+     *
+     * @return Max execution time.
+     */
+    public double getExecutionMax() {
+        return this.executionMax;
+    }
+}
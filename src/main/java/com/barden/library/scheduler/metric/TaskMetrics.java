@@ -0,0 +1,87 @@
+package com.barden.library.scheduler.metric;
+
+import com.barden.library.scheduler.SchedulerProvider;
+
+import javax.annotation.Nonnull;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Task metrics class.
+ * Holds metrics of named tasks and exposes them through JMX.
+ */
+public final class TaskMetrics implements TaskMetricsMXBean {
+
+    private final Map<String, TaskMetric> metrics = new ConcurrentHashMap<>();
+
+    /**
+     * Gets metric of the task name, creates if it doesn't exist.
+     *
+     * @param name Task name.
+     * @return Task metric.
+     */
+    @Nonnull
+    public TaskMetric of(@Nonnull String name) {
+        return this.metrics.computeIfAbsent(Objects.requireNonNull(name, "name cannot be null!"), TaskMetric::new);
+    }
+
+    /**
+     * Finds metric of the task name.
+     *
+     * @param name Task name.
+     * @return Optional task metric.
+     */
+    @Nonnull
+    public Optional<TaskMetric> find(@Nonnull String name) {
+        return Optional.ofNullable(this.metrics.get(Objects.requireNonNull(name, "name cannot be null!")));
+    }
+
+    /**
+     * Creates snapshots of task metrics.
+     *
+     * @return Task metric snapshots by task names.
+     */
+    @Nonnull
+    public Map<String, TaskMetricSnapshot> snapshot() {
+        Map<String, TaskMetricSnapshot> snapshots = new TreeMap<>();
+        this.metrics.forEach((name, metric) -> snapshots.put(name, metric.snapshot()));
+        return snapshots;
+    }
+
+    /**
+     * Registers metrics to platform JMX server.
+     *
+     * @param name Object name.
+     */
+    public void register(@Nonnull String name) {
+        Objects.requireNonNull(name, "name cannot be null!");
+        try {
+            ObjectName objectName = new ObjectName(name);
+            if (!ManagementFactory.getPlatformMBeanServer().isRegistered(objectName))
+                ManagementFactory.getPlatformMBeanServer().registerMBean(this, objectName);
+        } catch (Exception exception) {
+            SchedulerProvider.getLogger().error("Couldn't register task metrics(" + name + ") to JMX!", exception);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Map<String, TaskMetricSnapshot> getTaskMetrics() {
+        return this.snapshot();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void reset() {
+        this.metrics.clear();
+    }
+}
@@ -0,0 +1,21 @@
+package com.barden.library.scheduler.metric;
+
+import java.util.Map;
+
+/**
+ * Task metrics JMX interface.
+ */
+public interface TaskMetricsMXBean {
+
+    /**
+     * Gets snapshots of task metrics by task names.
+     *
+     * @return Task metric snapshots.
+     */
+    Map<String, TaskMetricSnapshot> getTaskMetrics();
+
+    /**
+     * Resets task metrics.
+     */
+    void reset();
+}
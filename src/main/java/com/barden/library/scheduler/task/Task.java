@@ -4,13 +4,19 @@ import com.barden.library.BardenJavaLibrary;
 import com.barden.library.metadata.MetadataEntity;
 import com.barden.library.scheduler.Scheduler;
 import com.barden.library.scheduler.SchedulerProvider;
+import com.barden.library.scheduler.cluster.LeaderElector;
+import com.barden.library.scheduler.cron.CronExpression;
 
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 import java.util.Objects;
 import java.util.UUID;
-import java.util.concurrent.ScheduledExecutorService;
-import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
 import java.util.function.Consumer;
 
 /**
@@ -20,13 +26,23 @@ public final class Task extends MetadataEntity implements Runnable {
 
     private final UUID id = UUID.randomUUID();
 
+    private final String name;
     private final Consumer<Task> consumer;
     private final long delay;
     private final long repeat;
     private final boolean block;
+    private final long deadline;
+    private final CronExpression cron;
+    private final LeaderElector leader;
 
-    private final ScheduledFuture<?> future;
+    private static final AtomicIntegerFieldUpdater<Task> RUNNING = AtomicIntegerFieldUpdater.newUpdater(Task.class, "running");
+
+    private final Future<?> future;
     private volatile Thread thread;
+    private volatile int running;
+    private volatile long budget;
+    private volatile boolean timedOut;
+    private long expected;
 
     /**
      * Creates task object.
@@ -37,24 +53,43 @@ public final class Task extends MetadataEntity implements Runnable {
         //Objects null check.
         Objects.requireNonNull(scheduler, "scheduler cannot be null!");
 
+        this.name = scheduler.getName();
         this.consumer = scheduler.getConsumer();
         this.delay = scheduler.getDelay();
         this.repeat = scheduler.getRepeat();
         this.block = scheduler.isBlock();
-        this.future = this.repeat == 0 ?
-                BardenJavaLibrary.getScheduler().getTimerService().schedule(this, this.delay, TimeUnit.MILLISECONDS) :
-                BardenJavaLibrary.getScheduler().getTimerService().scheduleAtFixedRate(this, this.delay, this.repeat, TimeUnit.MILLISECONDS);
+        this.deadline = scheduler.getDeadline();
+        this.cron = scheduler.getCron();
+        this.leader = scheduler.getLeader() == null ? null : BardenJavaLibrary.getScheduler().getLeader(scheduler.getLeader(), scheduler.getLeaderTtl());
+
+        //Expected start of the first run.
+        this.expected = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(this.delay);
 
-        //Adds task to the list.
+        //Adds task to the list. (Before scheduling, so an immediate run can remove it.)
         BardenJavaLibrary.getScheduler().addTask(this);
 
+        //Schedules task. Cron tasks share the cron timer slot, one-shot tasks with slack share timer wakeups with each other.
+        if (this.cron != null) {
+            CompletableFuture<?> future = new CompletableFuture<>();
+            if (!BardenJavaLibrary.getScheduler().getCronScheduler().schedule(this.cron, scheduler.getZone(), lateness -> this.run(System.nanoTime() - lateness), future)) {
+                BardenJavaLibrary.getScheduler().removeTask(this);
+                throw new IllegalArgumentException("cron expression(" + this.cron + ") never fires!");
+            }
+            this.future = future;
+        } else if (this.repeat == 0 && scheduler.getSlack() > 0) {
+            FutureTask<?> future = new FutureTask<>(this, null);
+            BardenJavaLibrary.getScheduler().getTimerCoalescer().schedule(future, this.delay, scheduler.getSlack(), TimeUnit.MILLISECONDS);
+            this.future = future;
+        } else {
+            this.future = this.repeat == 0 ?
+                    BardenJavaLibrary.getScheduler().getTimerService().schedule(this, this.delay, TimeUnit.MILLISECONDS) :
+                    BardenJavaLibrary.getScheduler().getTimerService().scheduleAtFixedRate(this, this.delay, this.repeat, TimeUnit.MILLISECONDS);
+        }
+
         //Blocks current thread until the task completion.
         if (this.block)
-            while (true) {
-                if (!this.future.isDone() && !this.future.isCancelled())
-                    continue;
-                break;
-            }
+            while ((!this.future.isDone() && !this.future.isCancelled()) || this.running == 1)
+                Thread.onSpinWait();
     }
 
     /**
@@ -67,6 +102,16 @@ public final class Task extends MetadataEntity implements Runnable {
         return this.id;
     }
 
+    /**
+     * Gets name.
+     *
+     * @return Task name. (Optional)
+     */
+    @Nullable
+    public String getName() {
+        return this.name;
+    }
+
     /**
      * Gets delay.
      *
@@ -85,6 +130,67 @@ public final class Task extends MetadataEntity implements Runnable {
         return this.repeat;
     }
 
+    /**
+     * Gets cron expression.
+     *
+     * @return Cron expression. (Optional)
+     */
+    @Nullable
+    public CronExpression getCron() {
+        return this.cron;
+    }
+
+    /**
+     * Gets leader elector.
+     *
+     * @return Leader elector of cluster singleton task. (Optional)
+     */
+    @Nullable
+    public LeaderElector getLeader() {
+        return this.leader;
+    }
+
+    /**
+     * Gets deadline.
+     *
+     * @return Deadline of each run in milliseconds. (0 if there is no deadline)
+     */
+    public long getDeadline() {
+        return this.deadline;
+    }
+
+    /**
+     * Gets remaining time budget of the current run.
+     *
+     * @param unit Time unit.
+     * @return Remaining time budget. (Long.MAX_VALUE if there is no deadline)
+     */
+    public long getRemaining(@Nonnull TimeUnit unit) {
+        Objects.requireNonNull(unit, "time unit cannot be null!");
+        if (this.deadline == 0)
+            return Long.MAX_VALUE;
+        return unit.convert(Math.max(this.budget - System.nanoTime(), 0), TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Gets if last run of the task is timed out or not.
+     *
+     * @return If last run of the task is timed out or not.
+     */
+    public boolean isTimedOut() {
+        return this.timedOut;
+    }
+
+    /**
+     * Gets if task should stop what it is doing.
+     * Long running tasks should check it periodically.
+     *
+     * @return If task is cancelled or timed out.
+     */
+    public boolean isCancellationRequested() {
+        return this.timedOut || (this.future != null && this.future.isCancelled()) || Thread.currentThread().isInterrupted();
+    }
+
     /**
      * Gets if task is blocking or not.
      *
@@ -105,6 +211,8 @@ public final class Task extends MetadataEntity implements Runnable {
             return TaskStatus.SCHEDULED;
         else if (this.future.isCancelled())
             return TaskStatus.CANCELLED;
+        else if (this.timedOut)
+            return TaskStatus.TIMED_OUT;
         else if (this.future.isDone())
             return TaskStatus.FINISHED;
         return TaskStatus.SCHEDULED;
@@ -115,35 +223,119 @@ public final class Task extends MetadataEntity implements Runnable {
      */
     @Override
     public void run() {
-        //Gets scheduled executor service.
-        ScheduledExecutorService service = BardenJavaLibrary.getScheduler().getTimerService();
+        //Declares expected start of this run and moves to the next one.
+        long expected = this.expected;
+        this.expected += TimeUnit.MILLISECONDS.toNanos(this.repeat);
+
+        //Runs task.
+        this.run(expected);
+    }
+
+    /**
+     * Runs task.
+     *
+     * @param expected Expected start time of the run in nanoseconds.
+     */
+    private void run(long expected) {
+        //Gets executor service. Timer thread only fires the task, work runs on the worker pool.
+        ExecutorService service = BardenJavaLibrary.getScheduler().getService();
+
+        //If task is cluster singleton and this node is not the leader, skips this run.
+        if (this.leader != null && !this.leader.isLeader())
+            return;
+
+        //If previous run of the task is still in progress, skips this run.
+        if (!RUNNING.compareAndSet(this, 0, 1)) {
+            if (this.name != null)
+                BardenJavaLibrary.getScheduler().getMetrics().of(this.name).skip();
+            return;
+        }
 
         //Executes service.
         service.execute(() -> {
             //Gets current thread.
-            this.thread = Thread.currentThread();
+            Thread current = Thread.currentThread();
+            this.thread = current;
+            long start = System.nanoTime();
+            boolean failed = false;
+
+            //Watches deadline of the run.
+            Future<?> watchdog = null;
+            if (this.deadline > 0) {
+                this.timedOut = false;
+                this.budget = start + TimeUnit.MILLISECONDS.toNanos(this.deadline);
+                watchdog = BardenJavaLibrary.getScheduler().getTimerService().schedule(this::timeout, this.deadline, TimeUnit.MILLISECONDS);
+            }
 
             //Handles errors.
             try {
                 this.consumer.accept(this);
             } catch (Exception exception) {
                 //Logs error.
-                SchedulerProvider.getLogger().error("Couldn't run task(" + this.getId() + ")!", exception);
+                SchedulerProvider.getLogger().error("Couldn't run task(" + (this.name == null ? this.getId() : this.name) + ")!", exception);
+                failed = true;
             } finally {
+                //Stops watching deadline and clears interrupt of the timeout, so it doesn't leak to the next pool task.
+                //If run is timed out, its slot is already released and might belong to the next run.
+                boolean released;
+                synchronized (this) {
+                    released = this.thread != current;
+                    if (!released)
+                        this.thread = null;
+                    if (watchdog != null) {
+                        watchdog.cancel(false);
+                        Thread.interrupted();
+                    }
+                }
+
+                //Records metrics of named task.
+                if (this.name != null)
+                    BardenJavaLibrary.getScheduler().getMetrics().of(this.name).record(start - expected, System.nanoTime() - start, failed || released);
+
                 //Removes task from the list.
-                if (this.repeat == 0)
+                if (this.repeat == 0 && this.cron == null)
                     BardenJavaLibrary.getScheduler().removeTask(this);
 
-                //Sets thread null.
-                this.thread = null;
+                //Releases slot for the next run.
+                if (!released)
+                    this.running = 0;
             }
         });
     }
 
+    /**
+     * Times out current run of the task.
+     * Slot of the run is released, so the next period runs even if this run ignores the interrupt.
+     */
+    private synchronized void timeout() {
+        //If run is already finished, no need to continue.
+        Thread thread = this.thread;
+        if (thread == null)
+            return;
+
+        //Marks task as timed out, releases its slot and interrupts it.
+        this.timedOut = true;
+        this.thread = null;
+        this.running = 0;
+        thread.interrupt();
+
+        //Logs warning.
+        SchedulerProvider.getLogger().warn("Task(" + (this.name == null ? this.getId() : this.name) + ") exceeded its deadline(" + this.deadline + "ms)!");
+    }
+
     /**
      * Cancels task.
      */
     public void cancel() {
+        this.cancel(true);
+    }
+
+    /**
+     * Cancels task.
+     *
+     * @param interrupt If running thread of the task should be interrupted or not.
+     */
+    public void cancel(boolean interrupt) {
         //If there is no future task, no need to continue.
         if (this.future == null)
             return;
@@ -152,8 +344,9 @@ public final class Task extends MetadataEntity implements Runnable {
         this.future.cancel(false);
 
         //If thread is set, terminates it.
-        if (this.thread != null)
-            this.thread.interrupt();
+        Thread thread = this.thread;
+        if (interrupt && thread != null)
+            thread.interrupt();
 
         //Removes task from the list.
         BardenJavaLibrary.getScheduler().removeTask(this);
@@ -6,5 +6,6 @@ package com.barden.library.scheduler.task;
 public enum TaskStatus {
     SCHEDULED,
     CANCELLED,
-    FINISHED
+    FINISHED,
+    TIMED_OUT
 }
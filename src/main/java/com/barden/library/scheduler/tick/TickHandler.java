@@ -0,0 +1,15 @@
+package com.barden.library.scheduler.tick;
+
+/**
+ * Tick handler interface.
+ */
+@FunctionalInterface
+public interface TickHandler {
+
+    /**
+     * Handles tick.
+     *
+     * @param tick Current tick number.
+     */
+    void onTick(long tick);
+}
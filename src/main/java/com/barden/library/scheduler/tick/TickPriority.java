@@ -0,0 +1,15 @@
+package com.barden.library.scheduler.tick;
+
+/**
+ * Tick priorities.
+ */
+public enum TickPriority {
+    /**
+     * Runs every tick regardless of the tick budget.
+     */
+    NORMAL,
+    /**
+     * Runs only while the tick budget is not exhausted, otherwise waits for later ticks.
+     */
+    LOW
+}
@@ -0,0 +1,359 @@
+package com.barden.library.scheduler.tick;
+
+import com.barden.library.BardenJavaLibrary;
+import com.barden.library.scheduler.SchedulerProvider;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+import javax.annotation.Nonnull;
+import java.util.List;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Tick scheduler class.
+ * Runs registered handlers at a fixed tick rate on its own thread, measures
+ * every tick and spends the remaining tick budget on low priority work.
+ */
+public final class TickScheduler {
+
+    private static final ThreadFactory threadFactory = new ThreadFactoryBuilder()
+            .setDaemon(true)
+            .setNameFormat("Scheduler Tick - #%d")
+            .build();
+
+    /**
+     * Tick count used to calculate statistics.
+     */
+    private static final int WINDOW = 100;
+    /**
+     * If the loop falls behind more than this many ticks, it stops catching up.
+     */
+    private static final int MAX_CATCH_UP = 10;
+
+    private final int rate;
+    private final long period;
+    private volatile long budget;
+
+    private final List<TickHandler> handlers = new CopyOnWriteArrayList<>();
+    private final List<TickHandler> lowHandlers = new CopyOnWriteArrayList<>();
+    private final Queue<Runnable> deferred = new ConcurrentLinkedQueue<>();
+    private int lowCursor;
+
+    //Statistics (written by tick thread only)
+    private final long[] durations = new long[WINDOW];
+    private final long[] starts = new long[WINDOW];
+    private volatile long tick;
+    private volatile double tps;
+    private volatile double meanTickTime;
+    private volatile long maxTickTime;
+
+    private volatile Thread thread;
+    private volatile boolean running;
+
+    /**
+     * Creates tick scheduler object.
+     *
+     * @param rate Ticks per second.
+     */
+    public TickScheduler(int rate) {
+        if (rate <= 0 || rate > 1000)
+            throw new IllegalArgumentException("rate must be between 1 and 1000!");
+        this.rate = rate;
+        this.period = TimeUnit.SECONDS.toNanos(1) / rate;
+        this.budget = this.period;
+    }
+
+    /**
+     * Gets tick rate.
+     *
+     * @return Ticks per second.
+     */
+    public int getRate() {
+        return this.rate;
+    }
+
+    /**
+     * Gets tick budget.
+     *
+     * @param unit Time unit.
+     * @return Tick budget.
+     */
+    public long getBudget(@Nonnull TimeUnit unit) {
+        return Objects.requireNonNull(unit, "time unit cannot be null!").convert(this.budget, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Sets tick budget.
+     * Low priority handlers and deferred runnables only run while the tick is within the budget.
+     *
+     * @param time Time.
+     * @param unit Time unit.
+     * @return Tick scheduler.
+     */
+    @Nonnull
+    public TickScheduler budget(long time, @Nonnull TimeUnit unit) {
+        long budget = Objects.requireNonNull(unit, "time unit cannot be null!").toNanos(time);
+        if (budget <= 0 || budget > this.period)
+            throw new IllegalArgumentException("budget must be positive and not longer than tick period!");
+        this.budget = budget;
+        return this;
+    }
+
+    /**
+     * Registers tick handler with normal priority.
+     *
+     * @param handler Tick handler.
+     * @return Tick scheduler.
+     */
+    @Nonnull
+    public TickScheduler register(@Nonnull TickHandler handler) {
+        return this.register(handler, TickPriority.NORMAL);
+    }
+
+    /**
+     * Registers tick handler.
+     * Handlers of the same priority run in registration order.
+     *
+     * @param handler  Tick handler.
+     * @param priority Tick priority.
+     * @return Tick scheduler.
+     */
+    @Nonnull
+    public TickScheduler register(@Nonnull TickHandler handler, @Nonnull TickPriority priority) {
+        //Objects null check.
+        Objects.requireNonNull(handler, "handler cannot be null!");
+        Objects.requireNonNull(priority, "priority cannot be null!");
+
+        //Adds handler to the list.
+        (priority == TickPriority.NORMAL ? this.handlers : this.lowHandlers).add(handler);
+        return this;
+    }
+
+    /**
+     * Unregisters tick handler.
+     *
+     * @param handler Tick handler.
+     */
+    public void unregister(@Nonnull TickHandler handler) {
+        Objects.requireNonNull(handler, "handler cannot be null!");
+        if (!this.handlers.remove(handler))
+            this.lowHandlers.remove(handler);
+    }
+
+    /**
+     * Defers a runnable to the tick thread.
+     * Deferred runnables run after the handlers, and only while there is budget left.
+     *
+     * @param runnable Runnable.
+     */
+    public void defer(@Nonnull Runnable runnable) {
+        this.deferred.offer(Objects.requireNonNull(runnable, "runnable cannot be null!"));
+    }
+
+    /**
+     * Gets deferred runnable count.
+     *
+     * @return Deferred runnable count.
+     */
+    public int getDeferred() {
+        return this.deferred.size();
+    }
+
+    /**
+     * Gets current tick number.
+     *
+     * @return Current tick number.
+     */
+    public long getTick() {
+        return this.tick;
+    }
+
+    /**
+     * Gets measured ticks per second.
+     *
+     * @return Measured ticks per second.
+     */
+    public double getTps() {
+        return this.tps;
+    }
+
+    /**
+     * Gets mean tick time of recent ticks.
+     *
+     * @return Mean tick time in milliseconds.
+     */
+    public double getMeanTickTime() {
+        return this.meanTickTime;
+    }
+
+    /**
+     * Gets max tick time of recent ticks.
+     *
+     * @return Max tick time in milliseconds.
+     */
+    public double getMaxTickTime() {
+        return this.maxTickTime / 1_000_000.0D;
+    }
+
+    /**
+     * Gets if tick scheduler is running or not.
+     *
+     * @return If tick scheduler is running or not.
+     */
+    public boolean isRunning() {
+        return this.running;
+    }
+
+    /**
+     * Starts tick scheduler.
+     *
+     * @return Tick scheduler.
+     */
+    @Nonnull
+    public synchronized TickScheduler start() {
+        //If it is already running, no need to continue.
+        if (this.running)
+            return this;
+        this.running = true;
+
+        //Starts tick thread.
+        this.thread = threadFactory.newThread(this::loop);
+        this.thread.start();
+
+        //Adds tick scheduler to the list.
+        BardenJavaLibrary.getScheduler().addTickScheduler(this);
+        return this;
+    }
+
+    /**
+     * Stops tick scheduler.
+     * Current tick is completed before the thread stops, it is awaited unless
+     * it is stopped from the tick thread itself. So a restart never runs two loops.
+     */
+    public synchronized void stop() {
+        //If it is not running, no need to continue.
+        if (!this.running)
+            return;
+        this.running = false;
+
+        //Releases tick thread, then wakes it up so it notices.
+        Thread thread = this.thread;
+        this.thread = null;
+        LockSupport.unpark(thread);
+
+        //Waits for the current tick to complete.
+        if (thread != Thread.currentThread()) {
+            try {
+                thread.join();
+            } catch (InterruptedException exception) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        //Removes tick scheduler from the list.
+        BardenJavaLibrary.getScheduler().removeTickScheduler(this);
+    }
+
+    /**
+     * Tick loop.
+     * Loop belongs to the thread it is started on, so a stopped loop never ticks again
+     * even if the scheduler is restarted before the loop notices it.
+     */
+    private void loop() {
+        Thread current = Thread.currentThread();
+        long next = System.nanoTime();
+        while (this.thread == current) {
+            long start = System.nanoTime();
+            long tick = this.tick + 1;
+
+            //Runs normal handlers.
+            for (TickHandler handler : this.handlers)
+                this.handle(handler, tick);
+
+            //Runs low priority handlers within budget, continues from the first skipped one next tick.
+            int size = this.lowHandlers.size();
+            for (int i = 0; i < size && System.nanoTime() - start < this.budget; i++) {
+                int index = this.lowCursor++ % size;
+                if (index < this.lowHandlers.size())
+                    this.handle(this.lowHandlers.get(index), tick);
+            }
+            if (size > 0)
+                this.lowCursor %= size;
+
+            //Runs deferred runnables within budget.
+            Runnable runnable;
+            while (System.nanoTime() - start < this.budget && (runnable = this.deferred.poll()) != null) {
+                try {
+                    runnable.run();
+                } catch (Exception exception) {
+                    SchedulerProvider.getLogger().error("Couldn't run deferred runnable of tick(" + tick + ")!", exception);
+                }
+            }
+
+            //Records statistics.
+            long end = System.nanoTime();
+            this.record(tick, start, end - start);
+
+            //Calculates next tick time. If it falls behind too much, skips missed ticks.
+            next += this.period;
+            if (end - next > this.period * MAX_CATCH_UP)
+                next = end;
+
+            //Waits for the next tick.
+            long wait;
+            while (this.thread == current && (wait = next - System.nanoTime()) > 0)
+                LockSupport.parkNanos(this, wait);
+        }
+    }
+
+    /**
+     * Handles tick handler.
+     *
+     * @param handler Tick handler.
+     * @param tick    Tick number.
+     */
+    private void handle(@Nonnull TickHandler handler, long tick) {
+        try {
+            handler.onTick(tick);
+        } catch (Exception exception) {
+            SchedulerProvider.getLogger().error("Couldn't run tick(" + tick + ") handler!", exception);
+        }
+    }
+
+    /**
+     * Records tick statistics.
+     *
+     * @param tick     Tick number.
+     * @param start    Tick start time in nanoseconds.
+     * @param duration Tick duration in nanoseconds.
+     */
+    private void record(long tick, long start, long duration) {
+        int index = (int) (tick % WINDOW);
+        this.durations[index] = duration;
+        this.starts[index] = start;
+        this.tick = tick;
+
+        //Calculates mean and max tick time of the recorded ticks.
+        int count = (int) Math.min(tick, WINDOW);
+        long total = 0;
+        long max = 0;
+        for (long i = tick - count + 1; i <= tick; i++) {
+            long recorded = this.durations[(int) (i % WINDOW)];
+            total += recorded;
+            max = Math.max(max, recorded);
+        }
+        this.meanTickTime = total / (double) count / 1_000_000.0D;
+        this.maxTickTime = max;
+
+        //Calculates ticks per second from the oldest recorded tick start.
+        if (count > 1) {
+            long oldest = this.starts[(int) ((tick - count + 1) % WINDOW)];
+            this.tps = Math.min(this.rate, (count - 1) * 1_000_000_000.0D / Math.max(start - oldest, 1));
+        }
+    }
+}
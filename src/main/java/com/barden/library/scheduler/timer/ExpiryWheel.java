@@ -0,0 +1,202 @@
+package com.barden.library.scheduler.timer;
+
+import com.barden.library.scheduler.SchedulerProvider;
+
+import javax.annotation.Nonnull;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Expiry wheel class.
+ * A hashed timing wheel for entries whose deadline moves often, such as
+ * idle timeouts. Entries are asked for their deadline only when their slot
+ * comes up, so moving a deadline doesn't touch the wheel at all. If the
+ * deadline has moved to the future meanwhile, entry is put back to its new slot.
+ */
+public final class ExpiryWheel {
+
+    /**
+     * Expiry wheel entry interface.
+     */
+    public interface Entry {
+
+        /**
+         * Gets deadline.
+         *
+         * @return Deadline in {@link System#nanoTime()}. (Long.MAX_VALUE to leave the wheel)
+         */
+        long getDeadline();
+
+        /**
+         * Expires entry.
+         * Due entries of a tick are expired together, one after another, on the executor.
+         */
+        void expire();
+    }
+
+    private final ScheduledExecutorService timer;
+    private final Executor executor;
+    private final long tick;
+    private final Slot[] slots;
+    private final long origin = System.nanoTime();
+    private final AtomicBoolean armed = new AtomicBoolean();
+    private volatile long current;
+    private ScheduledFuture<?> advancer;
+    private boolean stopped;
+
+    /**
+     * Creates expiry wheel object.
+     *
+     * @param timer    Timer service to advance wheel with.
+     * @param executor Executor to expire entries on.
+     * @param tick     Tick duration. Entries expire up to a tick late.
+     * @param unit     Time unit.
+     * @param size     Slot count. (Power of two)
+     */
+    public ExpiryWheel(@Nonnull ScheduledExecutorService timer, @Nonnull Executor executor, long tick, @Nonnull TimeUnit unit, int size) {
+        this.timer = Objects.requireNonNull(timer, "timer cannot be null!");
+        this.executor = Objects.requireNonNull(executor, "executor cannot be null!");
+        this.tick = Objects.requireNonNull(unit, "time unit cannot be null!").toNanos(tick);
+        if (this.tick <= 0)
+            throw new IllegalArgumentException("tick must be positive!");
+        if (size <= 0 || Integer.bitCount(size) != 1)
+            throw new IllegalArgumentException("size must be a power of two!");
+
+        this.slots = new Slot[size];
+        for (int i = 0; i < size; i++)
+            this.slots[i] = new Slot();
+    }
+
+    /**
+     * Gets pending entry count.
+     *
+     * @return Pending entry count.
+     */
+    public int getEntries() {
+        int entries = 0;
+        for (Slot slot : this.slots) {
+            synchronized (slot) {
+                entries += slot.entries.size();
+            }
+        }
+        return entries;
+    }
+
+    /**
+     * Schedules entry.
+     *
+     * @param entry Entry.
+     */
+    public void schedule(@Nonnull Entry entry) {
+        Objects.requireNonNull(entry, "entry cannot be null!");
+
+        //Arms timer with the first entry.
+        if (!this.armed.get() && this.armed.compareAndSet(false, true)) {
+            synchronized (this) {
+                if (!this.stopped)
+                    this.advancer = this.timer.scheduleAtFixedRate(this::advance, this.tick, this.tick, TimeUnit.NANOSECONDS);
+            }
+        }
+
+        this.add(entry, entry.getDeadline());
+    }
+
+    /**
+     * Stops wheel.
+     * Timer is released, pending entries are not expired anymore.
+     */
+    public synchronized void stop() {
+        this.stopped = true;
+        if (this.advancer != null)
+            this.advancer.cancel(false);
+    }
+
+    /**
+     * Adds entry to the slot of its deadline.
+     *
+     * @param entry    Entry.
+     * @param deadline Deadline.
+     */
+    private void add(@Nonnull Entry entry, long deadline) {
+        //If entry left the wheel, no need to continue.
+        if (deadline == Long.MAX_VALUE)
+            return;
+
+        //Rounds deadline up to a tick, never to a tick which is already processed.
+        //If wheel passes the tick meanwhile, retries with the next one.
+        long ticks = Math.floorDiv(deadline - this.origin + this.tick - 1, this.tick);
+        while (true) {
+            long tick = Math.max(ticks, this.current + 1);
+            Slot slot = this.slots[(int) (tick & (this.slots.length - 1))];
+            synchronized (slot) {
+                if (slot.processed < tick) {
+                    slot.entries.add(entry);
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * Advances wheel to the current time.
+     */
+    private void advance() {
+        long target = (System.nanoTime() - this.origin) / this.tick;
+        long now = System.nanoTime();
+        List<Entry> due = new ArrayList<>();
+
+        for (long tick = this.current + 1; tick <= target; tick++) {
+            //Marks tick as processed, so entries put back land on later ticks.
+            this.current = tick;
+
+            //Takes entries of the slot.
+            Slot slot = this.slots[(int) (tick & (this.slots.length - 1))];
+            List<Entry> entries;
+            synchronized (slot) {
+                slot.processed = tick;
+                if (slot.entries.isEmpty())
+                    continue;
+                entries = slot.entries;
+                slot.entries = new ArrayList<>();
+            }
+
+            //Collects due entries, puts others back.
+            for (Entry entry : entries) {
+                long deadline = entry.getDeadline();
+                if (deadline - now <= 0)
+                    due.add(entry);
+                else
+                    this.add(entry, deadline);
+            }
+        }
+
+        //If there is no due entry, no need to continue.
+        if (due.isEmpty())
+            return;
+
+        //Expires due entries.
+        this.executor.execute(() -> {
+            for (Entry entry : due) {
+                try {
+                    entry.expire();
+                } catch (Exception exception) {
+                    SchedulerProvider.getLogger().error("Couldn't expire wheel entry!", exception);
+                }
+            }
+        });
+    }
+
+    /**
+     * Slot class.
+     */
+    private static final class Slot {
+        private List<Entry> entries = new ArrayList<>();
+        private long processed = -1;
+    }
+}
@@ -0,0 +1,130 @@
+package com.barden.library.scheduler.timer;
+
+import com.barden.library.scheduler.SchedulerProvider;
+
+import javax.annotation.Nonnull;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Timer coalescer class.
+ * Runnables which tolerate some imprecision are grouped into time windows, and
+ * every window is fired by a single wakeup of the timer thread instead of one
+ * wakeup per runnable.
+ */
+public final class TimerCoalescer {
+
+    private final ScheduledExecutorService timer;
+    private final Map<Long, Window> windows = new ConcurrentHashMap<>();
+
+    /**
+     * Creates timer coalescer object.
+     *
+     * @param timer Timer service to fire windows with.
+     */
+    public TimerCoalescer(@Nonnull ScheduledExecutorService timer) {
+        this.timer = Objects.requireNonNull(timer, "timer cannot be null!");
+    }
+
+    /**
+     * Gets pending window count.
+     *
+     * @return Pending window count.
+     */
+    public int getWindows() {
+        return this.windows.size();
+    }
+
+    /**
+     * Schedules runnable.
+     * Runnable runs on the timer thread, so it must only hand work over to somewhere else.
+     *
+     * @param runnable Runnable.
+     * @param delay    Delay.
+     * @param slack    How late the runnable may run. Windows are aligned to the highest power of two not above it.
+     * @param unit     Time unit of delay and slack.
+     */
+    public void schedule(@Nonnull Runnable runnable, long delay, long slack, @Nonnull TimeUnit unit) {
+        //Objects null check.
+        Objects.requireNonNull(runnable, "runnable cannot be null!");
+        Objects.requireNonNull(unit, "time unit cannot be null!");
+
+        //If there is no slack, there is nothing to coalesce.
+        long granularity = Long.highestOneBit(unit.toMillis(slack));
+        if (granularity <= 1) {
+            this.timer.schedule(runnable, delay, unit);
+            return;
+        }
+
+        //Rounds deadline up to the window boundary.
+        long now = TimeUnit.NANOSECONDS.toMillis(System.nanoTime());
+        long deadline = now + Math.max(unit.toMillis(delay), 0);
+        long window = (deadline + granularity - 1) & -granularity;
+
+        //Adds runnable to the window, first runnable arms the wakeup.
+        this.windows.compute(window, (key, created) -> {
+            if (created == null)
+                created = new Window(this.timer.schedule(() -> this.fire(key), key - now, TimeUnit.MILLISECONDS));
+            created.runnables.add(runnable);
+            return created;
+        });
+    }
+
+    /**
+     * Stops timer coalescer.
+     * Wakeups of pending windows are cancelled.
+     *
+     * @return Runnables which haven't fired yet.
+     */
+    @Nonnull
+    public List<Runnable> stop() {
+        List<Runnable> runnables = new ArrayList<>();
+        for (Long key : this.windows.keySet()) {
+            Window window = this.windows.remove(key);
+            if (window == null)
+                continue;
+            window.wakeup.cancel(false);
+            runnables.addAll(window.runnables);
+        }
+        return runnables;
+    }
+
+    /**
+     * Fires window.
+     *
+     * @param window Window.
+     */
+    private void fire(long window) {
+        //Removes window, so late runnables create a new one.
+        Window removed = this.windows.remove(window);
+        if (removed == null)
+            return;
+
+        //Runs runnables.
+        for (Runnable runnable : removed.runnables) {
+            try {
+                runnable.run();
+            } catch (Exception exception) {
+                SchedulerProvider.getLogger().error("Couldn't run coalesced timer!", exception);
+            }
+        }
+    }
+
+    /**
+     * Window class.
+     */
+    private static final class Window {
+        private final ScheduledFuture<?> wakeup;
+        private final List<Runnable> runnables = new ArrayList<>();
+
+        private Window(@Nonnull ScheduledFuture<?> wakeup) {
+            this.wakeup = wakeup;
+        }
+    }
+}